@@ -0,0 +1,65 @@
+package tech.mhuang.ext.spring.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import tech.mhuang.ext.spring.util.DataUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个对象复制的基准、以BeanUtils.copyProperties作为对照
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataUtilCopyBenchmark {
+
+    private SmallBean smallBean;
+
+    private WideBean wideBean;
+
+    @Setup
+    public void setUp() {
+        smallBean = Fixtures.smallBean(42);
+        wideBean = Fixtures.wideBean(42);
+    }
+
+    @Benchmark
+    public SmallBeanDto smallCopyTo() {
+        return DataUtil.copyTo(smallBean, SmallBeanDto.class);
+    }
+
+    @Benchmark
+    public SmallBeanDto smallBeanUtils() {
+        SmallBeanDto dto = new SmallBeanDto();
+        BeanUtils.copyProperties(smallBean, dto);
+        return dto;
+    }
+
+    @Benchmark
+    public WideBeanDto wideCopyTo() {
+        return DataUtil.copyTo(wideBean, WideBeanDto.class);
+    }
+
+    @Benchmark
+    public WideBeanDto wideBeanUtils() {
+        WideBeanDto dto = new WideBeanDto();
+        BeanUtils.copyProperties(wideBean, dto);
+        return dto;
+    }
+}
@@ -0,0 +1,65 @@
+package tech.mhuang.ext.spring.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.mhuang.ext.spring.util.DataUtil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表复制的基准、覆盖顺序和并行两种模式
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataUtilListCopyBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private List<SmallBean> smallBeans;
+
+    private List<WideBean> wideBeans;
+
+    @Setup
+    public void setUp() {
+        smallBeans = Fixtures.smallBeans(size);
+        wideBeans = Fixtures.wideBeans(size);
+    }
+
+    @Benchmark
+    public List<SmallBeanDto> smallListCopyTo() {
+        return DataUtil.copyTo(smallBeans, SmallBeanDto.class);
+    }
+
+    @Benchmark
+    public List<SmallBeanDto> smallListCopyToParallel() {
+        return DataUtil.copyToParallel(smallBeans, SmallBeanDto.class);
+    }
+
+    @Benchmark
+    public List<WideBeanDto> wideListCopyTo() {
+        return DataUtil.copyTo(wideBeans, WideBeanDto.class);
+    }
+
+    @Benchmark
+    public List<WideBeanDto> wideListCopyToParallel() {
+        return DataUtil.copyToParallel(wideBeans, WideBeanDto.class);
+    }
+}
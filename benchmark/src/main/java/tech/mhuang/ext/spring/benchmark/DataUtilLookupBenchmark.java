@@ -0,0 +1,59 @@
+package tech.mhuang.ext.spring.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tech.mhuang.ext.spring.util.DataUtil;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 键值行转换及按字段名取值的基准
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataUtilLookupBenchmark {
+
+    private List<KeyValueRow> settingRows;
+
+    private SmallBean smallBean;
+
+    private WideBean wideBean;
+
+    @Setup
+    public void setUp() {
+        settingRows = Fixtures.settingRows();
+        smallBean = Fixtures.smallBean(42);
+        wideBean = Fixtures.wideBean(42);
+    }
+
+    @Benchmark
+    public Settings copyToKeyValue() {
+        return DataUtil.copyToKeyValue(settingRows, Settings.class, "key", "value");
+    }
+
+    @Benchmark
+    public String smallGetValueByModelKey() {
+        return DataUtil.getValueByModelKey(smallBean, "name", String.class);
+    }
+
+    @Benchmark
+    public Long wideGetValueByModelKey() {
+        return DataUtil.getValueByModelKey(wideBean, "field46", Long.class);
+    }
+}
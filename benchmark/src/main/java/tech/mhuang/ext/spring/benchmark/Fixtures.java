@@ -0,0 +1,86 @@
+package tech.mhuang.ext.spring.benchmark;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 基准测试数据
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+final class Fixtures {
+
+    private Fixtures() {
+
+    }
+
+    static SmallBean smallBean(int seed) {
+        SmallBean bean = new SmallBean();
+        bean.setId((long) seed);
+        bean.setName("name-" + seed);
+        bean.setAge(seed % 100);
+        bean.setEnabled(seed % 2 == 0);
+        bean.setEmail("user" + seed + "@mhuang.tech");
+        return bean;
+    }
+
+    static List<SmallBean> smallBeans(int size) {
+        List<SmallBean> beans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            beans.add(smallBean(i));
+        }
+        return beans;
+    }
+
+    /**
+     * 按属性类型填充宽对象的全部字段
+     */
+    static WideBean wideBean(int seed) {
+        WideBean bean = new WideBean();
+        BeanWrapper wrapper = new BeanWrapperImpl(bean);
+        for (PropertyDescriptor pd : wrapper.getPropertyDescriptors()) {
+            if (pd.getWriteMethod() == null) {
+                continue;
+            }
+            Class<?> type = pd.getPropertyType();
+            Object value;
+            if (type == int.class || type == Integer.class) {
+                value = seed;
+            } else if (type == long.class || type == Long.class) {
+                value = (long) seed;
+            } else if (type == double.class) {
+                value = seed / 2.0d;
+            } else if (type == boolean.class) {
+                value = seed % 2 == 0;
+            } else if (type == Date.class) {
+                value = new Date(seed);
+            } else {
+                value = pd.getName() + "-" + seed;
+            }
+            wrapper.setPropertyValue(pd.getName(), value);
+        }
+        return bean;
+    }
+
+    static List<WideBean> wideBeans(int size) {
+        List<WideBean> beans = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            beans.add(wideBean(i));
+        }
+        return beans;
+    }
+
+    static List<KeyValueRow> settingRows() {
+        List<KeyValueRow> rows = new ArrayList<>(20);
+        for (int i = 0; i < 20; i++) {
+            rows.add(new KeyValueRow(String.format("setting%02d", i), "value-" + i));
+        }
+        return rows;
+    }
+}
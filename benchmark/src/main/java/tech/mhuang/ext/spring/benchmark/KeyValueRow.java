@@ -0,0 +1,39 @@
+package tech.mhuang.ext.spring.benchmark;
+
+/**
+ * 键值配置行
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class KeyValueRow {
+
+    private String key;
+
+    private String value;
+
+    public KeyValueRow() {
+
+    }
+
+    public KeyValueRow(String key, String value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
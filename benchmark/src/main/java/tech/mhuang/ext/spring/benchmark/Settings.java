@@ -0,0 +1,210 @@
+package tech.mhuang.ext.spring.benchmark;
+
+/**
+ * 键值配置行转换的目标、20个配置项
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class Settings {
+
+    private String setting00;
+
+    private String setting01;
+
+    private String setting02;
+
+    private String setting03;
+
+    private String setting04;
+
+    private String setting05;
+
+    private String setting06;
+
+    private String setting07;
+
+    private String setting08;
+
+    private String setting09;
+
+    private String setting10;
+
+    private String setting11;
+
+    private String setting12;
+
+    private String setting13;
+
+    private String setting14;
+
+    private String setting15;
+
+    private String setting16;
+
+    private String setting17;
+
+    private String setting18;
+
+    private String setting19;
+
+    public String getSetting00() {
+        return setting00;
+    }
+
+    public void setSetting00(String setting00) {
+        this.setting00 = setting00;
+    }
+
+    public String getSetting01() {
+        return setting01;
+    }
+
+    public void setSetting01(String setting01) {
+        this.setting01 = setting01;
+    }
+
+    public String getSetting02() {
+        return setting02;
+    }
+
+    public void setSetting02(String setting02) {
+        this.setting02 = setting02;
+    }
+
+    public String getSetting03() {
+        return setting03;
+    }
+
+    public void setSetting03(String setting03) {
+        this.setting03 = setting03;
+    }
+
+    public String getSetting04() {
+        return setting04;
+    }
+
+    public void setSetting04(String setting04) {
+        this.setting04 = setting04;
+    }
+
+    public String getSetting05() {
+        return setting05;
+    }
+
+    public void setSetting05(String setting05) {
+        this.setting05 = setting05;
+    }
+
+    public String getSetting06() {
+        return setting06;
+    }
+
+    public void setSetting06(String setting06) {
+        this.setting06 = setting06;
+    }
+
+    public String getSetting07() {
+        return setting07;
+    }
+
+    public void setSetting07(String setting07) {
+        this.setting07 = setting07;
+    }
+
+    public String getSetting08() {
+        return setting08;
+    }
+
+    public void setSetting08(String setting08) {
+        this.setting08 = setting08;
+    }
+
+    public String getSetting09() {
+        return setting09;
+    }
+
+    public void setSetting09(String setting09) {
+        this.setting09 = setting09;
+    }
+
+    public String getSetting10() {
+        return setting10;
+    }
+
+    public void setSetting10(String setting10) {
+        this.setting10 = setting10;
+    }
+
+    public String getSetting11() {
+        return setting11;
+    }
+
+    public void setSetting11(String setting11) {
+        this.setting11 = setting11;
+    }
+
+    public String getSetting12() {
+        return setting12;
+    }
+
+    public void setSetting12(String setting12) {
+        this.setting12 = setting12;
+    }
+
+    public String getSetting13() {
+        return setting13;
+    }
+
+    public void setSetting13(String setting13) {
+        this.setting13 = setting13;
+    }
+
+    public String getSetting14() {
+        return setting14;
+    }
+
+    public void setSetting14(String setting14) {
+        this.setting14 = setting14;
+    }
+
+    public String getSetting15() {
+        return setting15;
+    }
+
+    public void setSetting15(String setting15) {
+        this.setting15 = setting15;
+    }
+
+    public String getSetting16() {
+        return setting16;
+    }
+
+    public void setSetting16(String setting16) {
+        this.setting16 = setting16;
+    }
+
+    public String getSetting17() {
+        return setting17;
+    }
+
+    public void setSetting17(String setting17) {
+        this.setting17 = setting17;
+    }
+
+    public String getSetting18() {
+        return setting18;
+    }
+
+    public void setSetting18(String setting18) {
+        this.setting18 = setting18;
+    }
+
+    public String getSetting19() {
+        return setting19;
+    }
+
+    public void setSetting19(String setting19) {
+        this.setting19 = setting19;
+    }
+}
@@ -0,0 +1,60 @@
+package tech.mhuang.ext.spring.benchmark;
+
+/**
+ * 小对象、5个字段
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class SmallBean {
+
+    private Long id;
+
+    private String name;
+
+    private int age;
+
+    private boolean enabled;
+
+    private String email;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,532 @@
+package tech.mhuang.ext.spring.benchmark;
+
+import java.util.Date;
+
+/**
+ * 宽对象、52个字段、覆盖基本类型、包装类型、String和Date
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class WideBean {
+
+    private int field00;
+
+    private long field01;
+
+    private double field02;
+
+    private boolean field03;
+
+    private String field04;
+
+    private Integer field05;
+
+    private Long field06;
+
+    private Date field07;
+
+    private int field08;
+
+    private long field09;
+
+    private double field10;
+
+    private boolean field11;
+
+    private String field12;
+
+    private Integer field13;
+
+    private Long field14;
+
+    private Date field15;
+
+    private int field16;
+
+    private long field17;
+
+    private double field18;
+
+    private boolean field19;
+
+    private String field20;
+
+    private Integer field21;
+
+    private Long field22;
+
+    private Date field23;
+
+    private int field24;
+
+    private long field25;
+
+    private double field26;
+
+    private boolean field27;
+
+    private String field28;
+
+    private Integer field29;
+
+    private Long field30;
+
+    private Date field31;
+
+    private int field32;
+
+    private long field33;
+
+    private double field34;
+
+    private boolean field35;
+
+    private String field36;
+
+    private Integer field37;
+
+    private Long field38;
+
+    private Date field39;
+
+    private int field40;
+
+    private long field41;
+
+    private double field42;
+
+    private boolean field43;
+
+    private String field44;
+
+    private Integer field45;
+
+    private Long field46;
+
+    private Date field47;
+
+    private int field48;
+
+    private long field49;
+
+    private double field50;
+
+    private boolean field51;
+
+    public int getField00() {
+        return field00;
+    }
+
+    public void setField00(int field00) {
+        this.field00 = field00;
+    }
+
+    public long getField01() {
+        return field01;
+    }
+
+    public void setField01(long field01) {
+        this.field01 = field01;
+    }
+
+    public double getField02() {
+        return field02;
+    }
+
+    public void setField02(double field02) {
+        this.field02 = field02;
+    }
+
+    public boolean isField03() {
+        return field03;
+    }
+
+    public void setField03(boolean field03) {
+        this.field03 = field03;
+    }
+
+    public String getField04() {
+        return field04;
+    }
+
+    public void setField04(String field04) {
+        this.field04 = field04;
+    }
+
+    public Integer getField05() {
+        return field05;
+    }
+
+    public void setField05(Integer field05) {
+        this.field05 = field05;
+    }
+
+    public Long getField06() {
+        return field06;
+    }
+
+    public void setField06(Long field06) {
+        this.field06 = field06;
+    }
+
+    public Date getField07() {
+        return field07;
+    }
+
+    public void setField07(Date field07) {
+        this.field07 = field07;
+    }
+
+    public int getField08() {
+        return field08;
+    }
+
+    public void setField08(int field08) {
+        this.field08 = field08;
+    }
+
+    public long getField09() {
+        return field09;
+    }
+
+    public void setField09(long field09) {
+        this.field09 = field09;
+    }
+
+    public double getField10() {
+        return field10;
+    }
+
+    public void setField10(double field10) {
+        this.field10 = field10;
+    }
+
+    public boolean isField11() {
+        return field11;
+    }
+
+    public void setField11(boolean field11) {
+        this.field11 = field11;
+    }
+
+    public String getField12() {
+        return field12;
+    }
+
+    public void setField12(String field12) {
+        this.field12 = field12;
+    }
+
+    public Integer getField13() {
+        return field13;
+    }
+
+    public void setField13(Integer field13) {
+        this.field13 = field13;
+    }
+
+    public Long getField14() {
+        return field14;
+    }
+
+    public void setField14(Long field14) {
+        this.field14 = field14;
+    }
+
+    public Date getField15() {
+        return field15;
+    }
+
+    public void setField15(Date field15) {
+        this.field15 = field15;
+    }
+
+    public int getField16() {
+        return field16;
+    }
+
+    public void setField16(int field16) {
+        this.field16 = field16;
+    }
+
+    public long getField17() {
+        return field17;
+    }
+
+    public void setField17(long field17) {
+        this.field17 = field17;
+    }
+
+    public double getField18() {
+        return field18;
+    }
+
+    public void setField18(double field18) {
+        this.field18 = field18;
+    }
+
+    public boolean isField19() {
+        return field19;
+    }
+
+    public void setField19(boolean field19) {
+        this.field19 = field19;
+    }
+
+    public String getField20() {
+        return field20;
+    }
+
+    public void setField20(String field20) {
+        this.field20 = field20;
+    }
+
+    public Integer getField21() {
+        return field21;
+    }
+
+    public void setField21(Integer field21) {
+        this.field21 = field21;
+    }
+
+    public Long getField22() {
+        return field22;
+    }
+
+    public void setField22(Long field22) {
+        this.field22 = field22;
+    }
+
+    public Date getField23() {
+        return field23;
+    }
+
+    public void setField23(Date field23) {
+        this.field23 = field23;
+    }
+
+    public int getField24() {
+        return field24;
+    }
+
+    public void setField24(int field24) {
+        this.field24 = field24;
+    }
+
+    public long getField25() {
+        return field25;
+    }
+
+    public void setField25(long field25) {
+        this.field25 = field25;
+    }
+
+    public double getField26() {
+        return field26;
+    }
+
+    public void setField26(double field26) {
+        this.field26 = field26;
+    }
+
+    public boolean isField27() {
+        return field27;
+    }
+
+    public void setField27(boolean field27) {
+        this.field27 = field27;
+    }
+
+    public String getField28() {
+        return field28;
+    }
+
+    public void setField28(String field28) {
+        this.field28 = field28;
+    }
+
+    public Integer getField29() {
+        return field29;
+    }
+
+    public void setField29(Integer field29) {
+        this.field29 = field29;
+    }
+
+    public Long getField30() {
+        return field30;
+    }
+
+    public void setField30(Long field30) {
+        this.field30 = field30;
+    }
+
+    public Date getField31() {
+        return field31;
+    }
+
+    public void setField31(Date field31) {
+        this.field31 = field31;
+    }
+
+    public int getField32() {
+        return field32;
+    }
+
+    public void setField32(int field32) {
+        this.field32 = field32;
+    }
+
+    public long getField33() {
+        return field33;
+    }
+
+    public void setField33(long field33) {
+        this.field33 = field33;
+    }
+
+    public double getField34() {
+        return field34;
+    }
+
+    public void setField34(double field34) {
+        this.field34 = field34;
+    }
+
+    public boolean isField35() {
+        return field35;
+    }
+
+    public void setField35(boolean field35) {
+        this.field35 = field35;
+    }
+
+    public String getField36() {
+        return field36;
+    }
+
+    public void setField36(String field36) {
+        this.field36 = field36;
+    }
+
+    public Integer getField37() {
+        return field37;
+    }
+
+    public void setField37(Integer field37) {
+        this.field37 = field37;
+    }
+
+    public Long getField38() {
+        return field38;
+    }
+
+    public void setField38(Long field38) {
+        this.field38 = field38;
+    }
+
+    public Date getField39() {
+        return field39;
+    }
+
+    public void setField39(Date field39) {
+        this.field39 = field39;
+    }
+
+    public int getField40() {
+        return field40;
+    }
+
+    public void setField40(int field40) {
+        this.field40 = field40;
+    }
+
+    public long getField41() {
+        return field41;
+    }
+
+    public void setField41(long field41) {
+        this.field41 = field41;
+    }
+
+    public double getField42() {
+        return field42;
+    }
+
+    public void setField42(double field42) {
+        this.field42 = field42;
+    }
+
+    public boolean isField43() {
+        return field43;
+    }
+
+    public void setField43(boolean field43) {
+        this.field43 = field43;
+    }
+
+    public String getField44() {
+        return field44;
+    }
+
+    public void setField44(String field44) {
+        this.field44 = field44;
+    }
+
+    public Integer getField45() {
+        return field45;
+    }
+
+    public void setField45(Integer field45) {
+        this.field45 = field45;
+    }
+
+    public Long getField46() {
+        return field46;
+    }
+
+    public void setField46(Long field46) {
+        this.field46 = field46;
+    }
+
+    public Date getField47() {
+        return field47;
+    }
+
+    public void setField47(Date field47) {
+        this.field47 = field47;
+    }
+
+    public int getField48() {
+        return field48;
+    }
+
+    public void setField48(int field48) {
+        this.field48 = field48;
+    }
+
+    public long getField49() {
+        return field49;
+    }
+
+    public void setField49(long field49) {
+        this.field49 = field49;
+    }
+
+    public double getField50() {
+        return field50;
+    }
+
+    public void setField50(double field50) {
+        this.field50 = field50;
+    }
+
+    public boolean isField51() {
+        return field51;
+    }
+
+    public void setField51(boolean field51) {
+        this.field51 = field51;
+    }
+}
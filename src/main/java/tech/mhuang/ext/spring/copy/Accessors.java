@@ -0,0 +1,395 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+/**
+ * 访问器生成.
+ * 公共且可见的方法通过LambdaMetafactory生成访问器、否则退化为MethodHandle调用
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+final class Accessors {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Map<Class<?>, Instantiator> INSTANTIATORS = new ConcurrentReferenceHashMap<>(64);
+
+    private Accessors() {
+
+    }
+
+    /**
+     * 属性读取
+     */
+    @FunctionalInterface
+    interface Getter {
+        Object get(Object bean) throws Throwable;
+    }
+
+    /**
+     * 属性写入
+     */
+    @FunctionalInterface
+    interface Setter {
+        void set(Object bean, Object value) throws Throwable;
+    }
+
+    /**
+     * int属性读取
+     */
+    @FunctionalInterface
+    interface IntGetter {
+        int get(Object bean) throws Throwable;
+    }
+
+    /**
+     * int属性写入
+     */
+    @FunctionalInterface
+    interface IntSetter {
+        void set(Object bean, int value) throws Throwable;
+    }
+
+    /**
+     * long属性读取
+     */
+    @FunctionalInterface
+    interface LongGetter {
+        long get(Object bean) throws Throwable;
+    }
+
+    /**
+     * long属性写入
+     */
+    @FunctionalInterface
+    interface LongSetter {
+        void set(Object bean, long value) throws Throwable;
+    }
+
+    /**
+     * double属性读取
+     */
+    @FunctionalInterface
+    interface DoubleGetter {
+        double get(Object bean) throws Throwable;
+    }
+
+    /**
+     * double属性写入
+     */
+    @FunctionalInterface
+    interface DoubleSetter {
+        void set(Object bean, double value) throws Throwable;
+    }
+
+    /**
+     * boolean属性读取
+     */
+    @FunctionalInterface
+    interface BooleanGetter {
+        boolean get(Object bean) throws Throwable;
+    }
+
+    /**
+     * boolean属性写入
+     */
+    @FunctionalInterface
+    interface BooleanSetter {
+        void set(Object bean, boolean value) throws Throwable;
+    }
+
+    /**
+     * 对象创建
+     */
+    @FunctionalInterface
+    interface Instantiator {
+        Object newInstance() throws Throwable;
+    }
+
+    /**
+     * 生成读方法的访问器
+     *
+     * @param readMethod 读方法
+     * @return 访问器
+     */
+    static Getter getter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        if (canGenerate(readMethod.getDeclaringClass(), readMethod.getModifiers(), readMethod.getReturnType())) {
+            MethodType instantiated = MethodType.methodType(ClassUtils.resolvePrimitiveIfNecessary(readMethod.getReturnType()),
+                    readMethod.getDeclaringClass());
+            return (Getter) generate(Getter.class, "get", MethodType.methodType(Object.class, Object.class), handle, instantiated);
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return bean -> (Object) generic.invokeExact(bean);
+    }
+
+    /**
+     * 生成写方法的访问器
+     *
+     * @param writeMethod 写方法
+     * @return 访问器
+     */
+    static Setter setter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        Class<?> parameterType = writeMethod.getParameterTypes()[0];
+        if (canGenerate(writeMethod.getDeclaringClass(), writeMethod.getModifiers(), parameterType)) {
+            MethodType instantiated = MethodType.methodType(void.class, writeMethod.getDeclaringClass(),
+                    ClassUtils.resolvePrimitiveIfNecessary(parameterType));
+            return (Setter) generate(Setter.class, "set", MethodType.methodType(void.class, Object.class, Object.class), handle, instantiated);
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (bean, value) -> {
+            generic.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 生成int读方法的访问器、读取时不装箱
+     *
+     * @param readMethod 返回int的读方法
+     * @return 访问器
+     */
+    static IntGetter intGetter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        MethodType samType = MethodType.methodType(int.class, Object.class);
+        if (canGenerate(readMethod.getDeclaringClass(), readMethod.getModifiers(), int.class)) {
+            return (IntGetter) generate(IntGetter.class, "get", samType, handle,
+                    MethodType.methodType(int.class, readMethod.getDeclaringClass()));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return bean -> (int) generic.invokeExact(bean);
+    }
+
+    /**
+     * 生成int写方法的访问器、写入时不拆箱
+     *
+     * @param writeMethod 参数为int的写方法
+     * @return 访问器
+     */
+    static IntSetter intSetter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        MethodType samType = MethodType.methodType(void.class, Object.class, int.class);
+        if (canGenerate(writeMethod.getDeclaringClass(), writeMethod.getModifiers(), int.class)) {
+            return (IntSetter) generate(IntSetter.class, "set", samType, handle,
+                    MethodType.methodType(void.class, writeMethod.getDeclaringClass(), int.class));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return (bean, value) -> {
+            generic.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 生成long读方法的访问器、读取时不装箱
+     *
+     * @param readMethod 返回long的读方法
+     * @return 访问器
+     */
+    static LongGetter longGetter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        MethodType samType = MethodType.methodType(long.class, Object.class);
+        if (canGenerate(readMethod.getDeclaringClass(), readMethod.getModifiers(), long.class)) {
+            return (LongGetter) generate(LongGetter.class, "get", samType, handle,
+                    MethodType.methodType(long.class, readMethod.getDeclaringClass()));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return bean -> (long) generic.invokeExact(bean);
+    }
+
+    /**
+     * 生成long写方法的访问器、写入时不拆箱
+     *
+     * @param writeMethod 参数为long的写方法
+     * @return 访问器
+     */
+    static LongSetter longSetter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        MethodType samType = MethodType.methodType(void.class, Object.class, long.class);
+        if (canGenerate(writeMethod.getDeclaringClass(), writeMethod.getModifiers(), long.class)) {
+            return (LongSetter) generate(LongSetter.class, "set", samType, handle,
+                    MethodType.methodType(void.class, writeMethod.getDeclaringClass(), long.class));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return (bean, value) -> {
+            generic.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 生成double读方法的访问器、读取时不装箱
+     *
+     * @param readMethod 返回double的读方法
+     * @return 访问器
+     */
+    static DoubleGetter doubleGetter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        MethodType samType = MethodType.methodType(double.class, Object.class);
+        if (canGenerate(readMethod.getDeclaringClass(), readMethod.getModifiers(), double.class)) {
+            return (DoubleGetter) generate(DoubleGetter.class, "get", samType, handle,
+                    MethodType.methodType(double.class, readMethod.getDeclaringClass()));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return bean -> (double) generic.invokeExact(bean);
+    }
+
+    /**
+     * 生成double写方法的访问器、写入时不拆箱
+     *
+     * @param writeMethod 参数为double的写方法
+     * @return 访问器
+     */
+    static DoubleSetter doubleSetter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        MethodType samType = MethodType.methodType(void.class, Object.class, double.class);
+        if (canGenerate(writeMethod.getDeclaringClass(), writeMethod.getModifiers(), double.class)) {
+            return (DoubleSetter) generate(DoubleSetter.class, "set", samType, handle,
+                    MethodType.methodType(void.class, writeMethod.getDeclaringClass(), double.class));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return (bean, value) -> {
+            generic.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 生成boolean读方法的访问器、读取时不装箱
+     *
+     * @param readMethod 返回boolean的读方法
+     * @return 访问器
+     */
+    static BooleanGetter booleanGetter(Method readMethod) {
+        MethodHandle handle = unreflect(readMethod);
+        MethodType samType = MethodType.methodType(boolean.class, Object.class);
+        if (canGenerate(readMethod.getDeclaringClass(), readMethod.getModifiers(), boolean.class)) {
+            return (BooleanGetter) generate(BooleanGetter.class, "get", samType, handle,
+                    MethodType.methodType(boolean.class, readMethod.getDeclaringClass()));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return bean -> (boolean) generic.invokeExact(bean);
+    }
+
+    /**
+     * 生成boolean写方法的访问器、写入时不拆箱
+     *
+     * @param writeMethod 参数为boolean的写方法
+     * @return 访问器
+     */
+    static BooleanSetter booleanSetter(Method writeMethod) {
+        MethodHandle handle = unreflect(writeMethod);
+        MethodType samType = MethodType.methodType(void.class, Object.class, boolean.class);
+        if (canGenerate(writeMethod.getDeclaringClass(), writeMethod.getModifiers(), boolean.class)) {
+            return (BooleanSetter) generate(BooleanSetter.class, "set", samType, handle,
+                    MethodType.methodType(void.class, writeMethod.getDeclaringClass(), boolean.class));
+        }
+        MethodHandle generic = handle.asType(samType);
+        return (bean, value) -> {
+            generic.invokeExact(bean, value);
+        };
+    }
+
+    /**
+     * 获取类的无参构造访问器、按类缓存
+     *
+     * @param type 需要创建的类
+     * @return 访问器
+     * @throws BeanInstantiationException 不存在无参构造时抛出
+     */
+    static Instantiator instantiator(Class<?> type) {
+        Instantiator instantiator = INSTANTIATORS.get(type);
+        if (instantiator == null) {
+            try {
+                instantiator = instantiator(type.getDeclaredConstructor());
+            } catch (NoSuchMethodException ex) {
+                throw new BeanInstantiationException(type, "No default constructor found", ex);
+            }
+            INSTANTIATORS.put(type, instantiator);
+        }
+        return instantiator;
+    }
+
+    /**
+     * 通过缓存的无参构造访问器创建对象
+     *
+     * @param type 需要创建的类
+     * @param <T>  需要创建的类型
+     * @return 新建的对象
+     */
+    static <T> T instantiate(Class<T> type) {
+        return instantiate(type, instantiator(type));
+    }
+
+    static <T> T instantiate(Class<T> type, Instantiator instantiator) {
+        try {
+            return type.cast(instantiator.newInstance());
+        } catch (Throwable ex) {
+            throw new BeanInstantiationException(type, "Constructor threw exception", ex);
+        }
+    }
+
+    /**
+     * 生成无参构造的访问器
+     *
+     * @param constructor 无参构造
+     * @return 访问器
+     */
+    static Instantiator instantiator(Constructor<?> constructor) {
+        ReflectionUtils.makeAccessible(constructor);
+        MethodHandle handle;
+        try {
+            handle = LOOKUP.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问构造方法:" + constructor, e);
+        }
+        Class<?> declaringClass = constructor.getDeclaringClass();
+        if (canGenerate(declaringClass, constructor.getModifiers(), declaringClass)) {
+            return (Instantiator) generate(Instantiator.class, "newInstance", MethodType.methodType(Object.class), handle,
+                    MethodType.methodType(declaringClass));
+        }
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+        return () -> (Object) generic.invokeExact();
+    }
+
+    private static MethodHandle unreflect(Method method) {
+        ReflectionUtils.makeAccessible(method);
+        try {
+            return LOOKUP.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("无法访问方法:" + method, e);
+        }
+    }
+
+    /**
+     * 生成的类由当前类加载器定义、因此只有公共且对当前类加载器可见的类型才能走生成路径
+     */
+    private static boolean canGenerate(Class<?> declaringClass, int modifiers, Class<?> valueType) {
+        ClassLoader classLoader = Accessors.class.getClassLoader();
+        return Modifier.isPublic(modifiers) && Modifier.isPublic(declaringClass.getModifiers())
+                && ClassUtils.isVisible(declaringClass, classLoader)
+                && (valueType.isPrimitive() || (Modifier.isPublic(valueType.getModifiers()) && ClassUtils.isVisible(valueType, classLoader)));
+    }
+
+    private static Object generate(Class<?> interfaceType, String methodName, MethodType samType,
+                                   MethodHandle implementation, MethodType instantiatedType) {
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, methodName, MethodType.methodType(interfaceType),
+                    samType, implementation, instantiatedType);
+            return site.getTarget().invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("访问器生成失败:" + implementation, e);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.BeanInstantiationException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 对象复制计划.
+ * 按(源类,目标类,忽略属性)构建一次复制计划并缓存、复制时直接调用生成的访问器,
+ * 复制规则与{@link BeanUtils#copyProperties(Object, Object, String...)}一致、
+ * 可通过{@link CopyFeature}启用额外的复制规则
+ *
+ * @param <T> 目标对象类型
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class BeanCopier<T> {
+
+    private static final Map<Key, BeanCopier<?>> CACHE = new ConcurrentReferenceHashMap<>(64);
+
+    /**
+     * 启动时预编译的复制计划、强引用保存、缓存中的计划被回收后从这里恢复而不重新构建
+     */
+    private static final Map<Key, BeanCopier<?>> PINNED = new ConcurrentHashMap<>(16);
+
+    /**
+     * 当前线程深复制中源对象到目标对象的映射、仅在可能成环的计划中使用
+     */
+    private static final ThreadLocal<Map<Object, Object>> COPIED = new ThreadLocal<>();
+
+    private static final Set<CopyFeature> NO_FEATURES = Collections.unmodifiableSet(EnumSet.noneOf(CopyFeature.class));
+
+    private final Class<?> sourceClass;
+
+    private final Class<T> targetClass;
+
+    private final PropertyCopier[] copiers;
+
+    /**
+     * 深复制且目标类型图可能成环、复制时需要按对象标识记录已复制的对象
+     */
+    private final boolean cyclic;
+
+    private volatile Accessors.Instantiator instantiator;
+
+    private BeanCopier(Class<?> sourceClass, Class<T> targetClass, PropertyCopier[] copiers, boolean cyclic) {
+        this.sourceClass = sourceClass;
+        this.targetClass = targetClass;
+        this.copiers = copiers;
+        this.cyclic = cyclic;
+    }
+
+    /**
+     * 获取复制计划、不存在则构建并缓存
+     *
+     * @param sourceClass      源类
+     * @param targetClass      目标类
+     * @param ignoreProperties 忽略的目标属性
+     * @param <T>              目标类型
+     * @return 复制计划
+     */
+    public static <T> BeanCopier<T> create(Class<?> sourceClass, Class<T> targetClass, String... ignoreProperties) {
+        return create(sourceClass, targetClass, NO_FEATURES, ignoreProperties);
+    }
+
+    /**
+     * 获取启用指定特性的复制计划、不存在则构建并缓存
+     *
+     * @param sourceClass      源类
+     * @param targetClass      目标类
+     * @param features         启用的特性
+     * @param ignoreProperties 忽略的目标属性
+     * @param <T>              目标类型
+     * @return 复制计划
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanCopier<T> create(Class<?> sourceClass, Class<T> targetClass, Set<CopyFeature> features, String... ignoreProperties) {
+        Assert.notNull(sourceClass, "Source class must not be null");
+        Assert.notNull(targetClass, "Target class must not be null");
+        Assert.notNull(features, "Features must not be null");
+        Key key = new Key(sourceClass, targetClass, features, ignoreProperties);
+        BeanCopier<?> copier = CACHE.get(key);
+        if (copier == null) {
+            copier = CACHE.computeIfAbsent(key, k -> {
+                BeanCopier<?> pinned = PINNED.get(k);
+                return (pinned != null ? pinned : build(sourceClass, targetClass, k.features, k.ignoreProperties));
+            });
+        }
+        return (BeanCopier<T>) copier;
+    }
+
+    /**
+     * 构建并强引用保存复制计划、内存紧张时不被回收
+     *
+     * @param sourceClass      源类
+     * @param targetClass      目标类
+     * @param features         启用的特性
+     * @param ignoreProperties 忽略的目标属性
+     * @see CopyPlanWarmUp
+     */
+    static void pin(Class<?> sourceClass, Class<?> targetClass, Set<CopyFeature> features, String... ignoreProperties) {
+        BeanCopier<?> copier = create(sourceClass, targetClass, features, ignoreProperties);
+        copier.prepare();
+        PINNED.put(new Key(sourceClass, targetClass, features, ignoreProperties), copier);
+    }
+
+    /**
+     * 获取复制到目标类的转换函数、按元素实际类型选择缓存的复制计划,
+     * 可安全用于并行流、null元素转换为null
+     *
+     * @param targetClass      目标类
+     * @param ignoreProperties 忽略的目标属性
+     * @param <T>              目标类型
+     * @return 转换函数
+     */
+    public static <T> Function<Object, T> mapping(Class<T> targetClass, String... ignoreProperties) {
+        return mapping(targetClass, NO_FEATURES, ignoreProperties);
+    }
+
+    /**
+     * 获取启用指定特性复制到目标类的转换函数
+     *
+     * @param targetClass      目标类
+     * @param features         启用的特性
+     * @param ignoreProperties 忽略的目标属性
+     * @param <T>              目标类型
+     * @return 转换函数
+     * @see #mapping(Class, String...)
+     */
+    public static <T> Function<Object, T> mapping(Class<T> targetClass, Set<CopyFeature> features, String... ignoreProperties) {
+        Assert.notNull(targetClass, "Target class must not be null");
+        Assert.notNull(features, "Features must not be null");
+        return new Mapping<>(targetClass, features, ignoreProperties);
+    }
+
+    /**
+     * 清空缓存的复制计划、包括预编译的复制计划
+     */
+    public static void clearCache() {
+        CACHE.clear();
+        PINNED.clear();
+    }
+
+    private static <T> BeanCopier<T> build(Class<?> sourceClass, Class<T> targetClass, Set<CopyFeature> features,
+                                           List<String> ignoreProperties) {
+        List<PropertyCopier> copiers = new ArrayList<>();
+        for (PropertyDescriptor targetPd : BeanUtils.getPropertyDescriptors(targetClass)) {
+            Method writeMethod = targetPd.getWriteMethod();
+            if (writeMethod == null || ignoreProperties.contains(targetPd.getName())) {
+                continue;
+            }
+            PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(sourceClass, targetPd.getName());
+            if (sourcePd == null) {
+                continue;
+            }
+            Method readMethod = sourcePd.getReadMethod();
+            if (readMethod == null) {
+                continue;
+            }
+            PropertyCopier deep = null;
+            if (features.contains(CopyFeature.DEEP)) {
+                deep = DeepCopyPlanner.plan(targetPd.getName(), readMethod, writeMethod, features);
+            }
+            if (deep != null) {
+                copiers.add(deep);
+            } else if (ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readMethod.getReturnType())) {
+                copiers.add(PropertyCopier.of(targetPd.getName(), readMethod, writeMethod));
+            } else if (features.contains(CopyFeature.CONVERT)) {
+                PropertyCopier converting = PropertyCopier.converting(targetPd.getName(), readMethod, writeMethod);
+                if (converting != null) {
+                    copiers.add(converting);
+                }
+            }
+        }
+        boolean cyclic = features.contains(CopyFeature.DEEP) && DeepCopyPlanner.isCyclic(targetClass);
+        return new BeanCopier<>(sourceClass, targetClass, copiers.toArray(new PropertyCopier[0]), cyclic);
+    }
+
+    /**
+     * 获取源类
+     *
+     * @return 源类
+     */
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    /**
+     * 获取目标类
+     *
+     * @return 目标类
+     */
+    public Class<T> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * 将源对象的属性复制到目标对象
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copy(Object source, Object target) {
+        if (!cyclic) {
+            copyProperties(source, target);
+            return;
+        }
+        Map<Object, Object> copied = COPIED.get();
+        boolean root = (copied == null);
+        if (root) {
+            copied = new IdentityHashMap<>();
+            COPIED.set(copied);
+        }
+        try {
+            copied.put(source, target);
+            copyProperties(source, target);
+        } finally {
+            if (root) {
+                COPIED.remove();
+            }
+        }
+    }
+
+    /**
+     * 创建目标对象并复制源对象的属性
+     *
+     * @param source 源对象
+     * @return 复制后的目标对象、同一次深复制中已复制过的源对象返回已有的复制
+     */
+    public T copy(Object source) {
+        if (cyclic) {
+            Map<Object, Object> copied = COPIED.get();
+            Object existing = (copied == null ? null : copied.get(source));
+            if (targetClass.isInstance(existing)) {
+                return targetClass.cast(existing);
+            }
+        }
+        T target = newInstance();
+        copy(source, target);
+        return target;
+    }
+
+    private void copyProperties(Object source, Object target) {
+        for (PropertyCopier copier : copiers) {
+            copier.copy(source, target);
+        }
+    }
+
+    /**
+     * 预先解析目标类的无参构造、不存在无参构造时忽略
+     */
+    void prepare() {
+        if (instantiator == null) {
+            try {
+                instantiator = Accessors.instantiator(targetClass);
+            } catch (BeanInstantiationException ignored) {
+                // 仅用于copy(Object, Object)的计划不需要构造方法
+            }
+        }
+    }
+
+    /**
+     * 通过缓存的无参构造创建目标对象
+     *
+     * @return 目标对象
+     */
+    public T newInstance() {
+        Accessors.Instantiator current = instantiator;
+        if (current == null) {
+            current = Accessors.instantiator(targetClass);
+            instantiator = current;
+        }
+        return Accessors.instantiate(targetClass, current);
+    }
+
+    /**
+     * 记住最近一次复制计划的转换函数、同类型元素连续出现时无需查询缓存
+     */
+    private static final class Mapping<T> implements Function<Object, T> {
+
+        private final Class<T> targetClass;
+
+        private final Set<CopyFeature> features;
+
+        private final String[] ignoreProperties;
+
+        private volatile BeanCopier<T> last;
+
+        Mapping(Class<T> targetClass, Set<CopyFeature> features, String[] ignoreProperties) {
+            this.targetClass = targetClass;
+            this.features = features;
+            this.ignoreProperties = ignoreProperties;
+        }
+
+        @Override
+        public T apply(Object source) {
+            if (source == null) {
+                return null;
+            }
+            BeanCopier<T> copier = last;
+            if (copier == null || copier.sourceClass != source.getClass()) {
+                copier = create(source.getClass(), targetClass, features, ignoreProperties);
+                last = copier;
+            }
+            return copier.copy(source);
+        }
+    }
+
+    /**
+     * 复制计划的缓存key
+     */
+    private static final class Key {
+
+        private final Class<?> sourceClass;
+
+        private final Class<?> targetClass;
+
+        private final Set<CopyFeature> features;
+
+        private final List<String> ignoreProperties;
+
+        private final int hash;
+
+        Key(Class<?> sourceClass, Class<?> targetClass, Set<CopyFeature> features, String[] ignoreProperties) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.features = (features.isEmpty() ? NO_FEATURES : Collections.unmodifiableSet(EnumSet.copyOf(features)));
+            if (ignoreProperties == null || ignoreProperties.length == 0) {
+                this.ignoreProperties = Collections.emptyList();
+            } else {
+                String[] sorted = ignoreProperties.clone();
+                Arrays.sort(sorted);
+                this.ignoreProperties = Arrays.asList(sorted);
+            }
+            this.hash = Objects.hash(sourceClass, targetClass, this.features, this.ignoreProperties);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return sourceClass == key.sourceClass && targetClass == key.targetClass
+                    && features.equals(key.features) && ignoreProperties.equals(key.ignoreProperties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
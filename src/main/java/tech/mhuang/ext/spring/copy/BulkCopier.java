@@ -0,0 +1,238 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 列表批量复制.
+ * 列表长度达到并行阈值时按fork-join分块并行复制、结果保持源列表顺序,
+ * 每个分块复用已解析的复制计划和构造方法
+ *
+ * @param <E> 目标对象类型
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class BulkCopier<E> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkCopier.class);
+
+    /**
+     * 默认并行阈值、小于该数量的列表顺序复制
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2048;
+
+    /**
+     * 单个分块的最小元素数
+     */
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    /**
+     * 标记复制失败的位置
+     */
+    private static final Object FAILED = new Object();
+
+    private final Class<E> targetClass;
+
+    private String[] ignoreProperties;
+
+    private Set<CopyFeature> features = EnumSet.noneOf(CopyFeature.class);
+
+    private CopyErrorPolicy errorPolicy = CopyErrorPolicy.SKIP;
+
+    private int parallelThreshold = Integer.MAX_VALUE;
+
+    private ForkJoinPool pool;
+
+    private BulkCopier(Class<E> targetClass) {
+        this.targetClass = targetClass;
+    }
+
+    /**
+     * 创建复制到指定类的批量复制器、默认顺序复制并跳过失败元素
+     *
+     * @param targetClass 目标类
+     * @param <E>         目标类型
+     * @return 批量复制器
+     */
+    public static <E> BulkCopier<E> of(Class<E> targetClass) {
+        Assert.notNull(targetClass, "Target class must not be null");
+        return new BulkCopier<>(targetClass);
+    }
+
+    /**
+     * 设置忽略的目标属性
+     *
+     * @param ignoreProperties 忽略的目标属性
+     * @return 当前复制器
+     */
+    public BulkCopier<E> ignore(String... ignoreProperties) {
+        this.ignoreProperties = ignoreProperties;
+        return this;
+    }
+
+    /**
+     * 设置启用的复制特性
+     *
+     * @param features 启用的特性
+     * @return 当前复制器
+     */
+    public BulkCopier<E> features(CopyFeature... features) {
+        this.features = EnumSet.noneOf(CopyFeature.class);
+        Collections.addAll(this.features, features);
+        return this;
+    }
+
+    /**
+     * 设置单个元素失败的处理策略
+     *
+     * @param errorPolicy 失败处理策略
+     * @return 当前复制器
+     */
+    public BulkCopier<E> errorPolicy(CopyErrorPolicy errorPolicy) {
+        Assert.notNull(errorPolicy, "Error policy must not be null");
+        this.errorPolicy = errorPolicy;
+        return this;
+    }
+
+    /**
+     * 开启并行复制、使用公共ForkJoinPool
+     *
+     * @param threshold 并行阈值、小于该数量的列表仍顺序复制
+     * @return 当前复制器
+     */
+    public BulkCopier<E> parallel(int threshold) {
+        return parallel(threshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 开启并行复制
+     *
+     * @param threshold 并行阈值、小于该数量的列表仍顺序复制
+     * @param pool      执行复制的ForkJoinPool
+     * @return 当前复制器
+     */
+    public BulkCopier<E> parallel(int threshold, ForkJoinPool pool) {
+        Assert.isTrue(threshold > 0, "Parallel threshold must be greater than 0");
+        Assert.notNull(pool, "ForkJoinPool must not be null");
+        this.parallelThreshold = threshold;
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * 复制列表
+     *
+     * @param source 源列表
+     * @return 按源列表顺序复制后的列表
+     * @throws BulkCopyException 策略为FAIL_FAST或COLLECT且存在失败元素时抛出
+     */
+    public List<E> copy(List<?> source) {
+        if (source == null || source.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Object[] items = source.toArray();
+        Object[] results = new Object[items.length];
+        SortedMap<Integer, Throwable> failures = new ConcurrentSkipListMap<>();
+        AtomicBoolean aborted = new AtomicBoolean();
+        if (items.length < parallelThreshold) {
+            copyRange(items, results, 0, items.length, failures, aborted);
+        } else {
+            int chunkSize = Math.max(MIN_CHUNK_SIZE, items.length / (pool.getParallelism() * 4));
+            pool.invoke(new CopyTask(items, results, 0, items.length, chunkSize, failures, aborted));
+        }
+        List<E> copied = new ArrayList<>(items.length - failures.size());
+        for (Object result : results) {
+            if (result != null && result != FAILED) {
+                copied.add(targetClass.cast(result));
+            }
+        }
+        if (!failures.isEmpty() && errorPolicy != CopyErrorPolicy.SKIP) {
+            throw new BulkCopyException("copy数据失败" + failures.size() + "条", failures, copied);
+        }
+        return copied;
+    }
+
+    private void copyRange(Object[] items, Object[] results, int from, int to,
+                           SortedMap<Integer, Throwable> failures, AtomicBoolean aborted) {
+        BeanCopier<E> copier = null;
+        for (int i = from; i < to; i++) {
+            if (aborted.get()) {
+                return;
+            }
+            Object item = items[i];
+            try {
+                if (copier == null || copier.getSourceClass() != item.getClass()) {
+                    copier = BeanCopier.create(item.getClass(), targetClass, features, ignoreProperties);
+                }
+                results[i] = copier.copy(item);
+            } catch (Exception e) {
+                results[i] = FAILED;
+                if (errorPolicy == CopyErrorPolicy.SKIP) {
+                    logger.error("copy数据异常失败", e);
+                } else {
+                    failures.put(i, e);
+                    if (errorPolicy == CopyErrorPolicy.FAIL_FAST) {
+                        aborted.set(true);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 分块复制任务
+     */
+    private final class CopyTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] items;
+
+        private final Object[] results;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunkSize;
+
+        private final SortedMap<Integer, Throwable> failures;
+
+        private final AtomicBoolean aborted;
+
+        CopyTask(Object[] items, Object[] results, int from, int to, int chunkSize,
+                 SortedMap<Integer, Throwable> failures, AtomicBoolean aborted) {
+            this.items = items;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.failures = failures;
+            this.aborted = aborted;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize || aborted.get()) {
+                copyRange(items, results, from, to, failures, aborted);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CopyTask(items, results, from, middle, chunkSize, failures, aborted),
+                    new CopyTask(items, results, middle, to, chunkSize, failures, aborted));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.FatalBeanException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * 列表复制失败异常.
+ * 携带失败元素的下标及原因、以及成功复制的元素
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class BulkCopyException extends FatalBeanException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient SortedMap<Integer, Throwable> failures;
+
+    private final transient List<?> copied;
+
+    public BulkCopyException(String msg, SortedMap<Integer, Throwable> failures, List<?> copied) {
+        super(msg, failures.isEmpty() ? null : failures.get(failures.firstKey()));
+        this.failures = Collections.unmodifiableSortedMap(failures);
+        this.copied = Collections.unmodifiableList(copied);
+    }
+
+    /**
+     * 获取失败的元素下标及原因
+     *
+     * @return 按源列表下标排序的失败信息
+     */
+    public SortedMap<Integer, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * 获取成功复制的元素、保持源列表顺序
+     *
+     * @return 成功复制的元素
+     */
+    public List<?> getCopied() {
+        return copied;
+    }
+}
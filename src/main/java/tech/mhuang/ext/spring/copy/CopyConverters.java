@@ -0,0 +1,91 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.GenericConverter;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.util.Assert;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * 复制时的类型转换注册.
+ * 基于{@link DefaultConversionService}、额外支持Date与java.time之间的转换,
+ * 转换器在构建复制计划时按属性对解析一次、复制时直接调用
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class CopyConverters {
+
+    private static final CopyConversionService CONVERSION_SERVICE = new CopyConversionService();
+
+    private CopyConverters() {
+
+    }
+
+    /**
+     * 注册自定义转换器、已缓存的复制计划会被清空以便重新解析
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @param converter  转换器
+     * @param <S>        源类型
+     * @param <T>        目标类型
+     */
+    public static <S, T> void register(Class<S> sourceType, Class<T> targetType, Converter<? super S, ? extends T> converter) {
+        Assert.notNull(converter, "Converter must not be null");
+        CONVERSION_SERVICE.addConverter(sourceType, targetType, converter);
+        BeanCopier.clearCache();
+    }
+
+    /**
+     * 注册通用转换器、已缓存的复制计划会被清空以便重新解析
+     *
+     * @param converter 转换器
+     */
+    public static void register(GenericConverter converter) {
+        Assert.notNull(converter, "Converter must not be null");
+        CONVERSION_SERVICE.addConverter(converter);
+        BeanCopier.clearCache();
+    }
+
+    /**
+     * 解析属性对的转换器
+     *
+     * @param sourceType 源属性类型
+     * @param targetType 目标属性类型
+     * @return 转换器、无法转换时返回null
+     */
+    static GenericConverter resolve(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        return CONVERSION_SERVICE.getConverter(sourceType, targetType);
+    }
+
+    /**
+     * 开放转换器查找的转换服务
+     */
+    private static final class CopyConversionService extends DefaultConversionService {
+
+        CopyConversionService() {
+            addConverter(Date.class, LocalDateTime.class,
+                    (Converter<Date, LocalDateTime>) date -> LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+            addConverter(LocalDateTime.class, Date.class,
+                    (Converter<LocalDateTime, Date>) dateTime -> Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant()));
+            addConverter(Date.class, LocalDate.class,
+                    (Converter<Date, LocalDate>) date -> date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+            addConverter(LocalDate.class, Date.class,
+                    (Converter<LocalDate, Date>) date -> Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            addConverter(Date.class, Instant.class, (Converter<Date, Instant>) Date::toInstant);
+            addConverter(Instant.class, Date.class, (Converter<Instant, Date>) Date::from);
+        }
+
+        @Override
+        protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+            return super.getConverter(sourceType, targetType);
+        }
+    }
+}
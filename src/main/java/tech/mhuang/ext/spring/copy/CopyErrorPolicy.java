@@ -0,0 +1,25 @@
+package tech.mhuang.ext.spring.copy;
+
+/**
+ * 列表复制时单个元素失败的处理策略
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public enum CopyErrorPolicy {
+
+    /**
+     * 记录日志并跳过失败的元素
+     */
+    SKIP,
+
+    /**
+     * 遇到第一个失败立即终止并抛出异常
+     */
+    FAIL_FAST,
+
+    /**
+     * 复制全部元素、结束后将所有失败汇总抛出{@link BulkCopyException}
+     */
+    COLLECT
+}
@@ -0,0 +1,20 @@
+package tech.mhuang.ext.spring.copy;
+
+/**
+ * 复制计划的可选特性、不指定时与{@link org.springframework.beans.BeanUtils#copyProperties(Object, Object, String...)}规则一致
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public enum CopyFeature {
+
+    /**
+     * 类型不一致的属性通过{@link CopyConverters}转换后复制、无可用转换的属性仍然跳过
+     */
+    CONVERT,
+
+    /**
+     * 子对象、集合及Map的值按嵌套复制计划深复制、类型图可能成环时按对象标识保持引用关系
+     */
+    DEEP
+}
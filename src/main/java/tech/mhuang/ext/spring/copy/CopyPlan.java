@@ -0,0 +1,50 @@
+package tech.mhuang.ext.spring.copy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明需要在启动时预编译的复制计划、标注在spring管理的bean类上、
+ * 由{@link CopyPlanWarmUp}在上下文启动时构建
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Repeatable(CopyPlans.class)
+public @interface CopyPlan {
+
+    /**
+     * 源类
+     *
+     * @return 源类
+     */
+    Class<?> source();
+
+    /**
+     * 目标类
+     *
+     * @return 目标类
+     */
+    Class<?> target();
+
+    /**
+     * 忽略的目标属性
+     *
+     * @return 忽略的目标属性
+     */
+    String[] ignore() default {};
+
+    /**
+     * 启用的复制特性
+     *
+     * @return 启用的复制特性
+     */
+    CopyFeature[] features() default {};
+}
@@ -0,0 +1,205 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 启动时预编译复制计划.
+ * 收集bean类上的{@link CopyPlan}声明及手动配置的复制计划、在上下文启动时构建并强引用保存,
+ * 避免发布后首次请求承担内省和访问器生成的开销、预编译的计划不会因内存紧张被回收,
+ * 调用{@link BeanCopier#clearCache()}时一并清除。
+ * 作为{@link BeanFactoryPostProcessor}使用、通过@Bean声明时需使用static方法
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class CopyPlanWarmUp implements BeanFactoryPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyPlanWarmUp.class);
+
+    /**
+     * 配置声明中源类和目标类的分隔符
+     */
+    private static final String PAIR_SEPARATOR = "->";
+
+    private final List<Definition> definitions = new ArrayList<>();
+
+    private List<String> pairs = new ArrayList<>();
+
+    private boolean parallel = true;
+
+    private volatile int planCount;
+
+    private volatile int failedCount;
+
+    private volatile long elapsedMillis;
+
+    /**
+     * 手动添加需要预编译的复制计划
+     *
+     * @param source           源类
+     * @param target           目标类
+     * @param features         启用的复制特性
+     * @param ignoreProperties 忽略的目标属性
+     * @return 当前对象
+     */
+    public CopyPlanWarmUp addPlan(Class<?> source, Class<?> target, Set<CopyFeature> features, String... ignoreProperties) {
+        Assert.notNull(source, "Source class must not be null");
+        Assert.notNull(target, "Target class must not be null");
+        this.definitions.add(new Definition(source, target, features, ignoreProperties));
+        return this;
+    }
+
+    /**
+     * 手动添加需要预编译的复制计划
+     *
+     * @param source           源类
+     * @param target           目标类
+     * @param ignoreProperties 忽略的目标属性
+     * @return 当前对象
+     */
+    public CopyPlanWarmUp addPlan(Class<?> source, Class<?> target, String... ignoreProperties) {
+        return addPlan(source, target, EnumSet.noneOf(CopyFeature.class), ignoreProperties);
+    }
+
+    /**
+     * 通过配置声明需要预编译的复制计划、格式为 源类全名-&gt;目标类全名
+     *
+     * @param pairs 复制计划声明
+     */
+    public void setPairs(List<String> pairs) {
+        this.pairs = (pairs == null ? new ArrayList<>() : pairs);
+    }
+
+    /**
+     * 是否并行构建复制计划、默认并行
+     *
+     * @param parallel 并行构建为true
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        List<Definition> all = new ArrayList<>(this.definitions);
+        all.addAll(resolvePairs(classLoader));
+        Set<String> scanned = new HashSet<>();
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = beanFactory.getBeanDefinition(beanName);
+            String className = beanDefinition.getBeanClassName();
+            if (className == null || !scanned.add(className) || !ClassUtils.isPresent(className, classLoader)) {
+                continue;
+            }
+            Class<?> beanClass = ClassUtils.resolveClassName(className, classLoader);
+            for (CopyPlan plan : AnnotatedElementUtils.findMergedRepeatableAnnotations(beanClass, CopyPlan.class, CopyPlans.class)) {
+                all.add(new Definition(plan.source(), plan.target(), toSet(plan.features()), plan.ignore()));
+            }
+        }
+        warmUp(all);
+    }
+
+    private void warmUp(Collection<Definition> all) {
+        long start = System.nanoTime();
+        AtomicInteger built = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        (parallel ? all.parallelStream() : all.stream()).forEach(definition -> {
+            try {
+                BeanCopier.pin(definition.source, definition.target, definition.features, definition.ignoreProperties);
+                built.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                logger.warn("复制计划预编译失败:{}->{}", definition.source.getName(), definition.target.getName(), e);
+            }
+        });
+        this.planCount = built.get();
+        this.failedCount = failed.get();
+        this.elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.info("复制计划预编译完成、成功{}个、失败{}个、耗时{}ms", planCount, failedCount, elapsedMillis);
+    }
+
+    /**
+     * 获取最近一次预编译成功的复制计划数
+     *
+     * @return 复制计划数
+     */
+    public int getPlanCount() {
+        return planCount;
+    }
+
+    /**
+     * 获取最近一次预编译失败的复制计划数
+     *
+     * @return 失败数
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * 获取最近一次预编译的耗时
+     *
+     * @return 耗时毫秒数
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    private List<Definition> resolvePairs(ClassLoader classLoader) {
+        List<Definition> resolved = new ArrayList<>(pairs.size());
+        for (String pair : pairs) {
+            String[] classNames = StringUtils.split(pair, PAIR_SEPARATOR);
+            Assert.notNull(classNames, "复制计划声明格式应为 源类->目标类:" + pair);
+            resolved.add(new Definition(ClassUtils.resolveClassName(classNames[0].trim(), classLoader),
+                    ClassUtils.resolveClassName(classNames[1].trim(), classLoader),
+                    EnumSet.noneOf(CopyFeature.class), new String[0]));
+        }
+        return resolved;
+    }
+
+    private static Set<CopyFeature> toSet(CopyFeature[] features) {
+        Set<CopyFeature> set = EnumSet.noneOf(CopyFeature.class);
+        set.addAll(Arrays.asList(features));
+        return set;
+    }
+
+    /**
+     * 复制计划声明
+     */
+    private static final class Definition {
+
+        private final Class<?> source;
+
+        private final Class<?> target;
+
+        private final Set<CopyFeature> features;
+
+        private final String[] ignoreProperties;
+
+        Definition(Class<?> source, Class<?> target, Set<CopyFeature> features, String[] ignoreProperties) {
+            this.source = source;
+            this.target = target;
+            this.features = features;
+            this.ignoreProperties = ignoreProperties;
+        }
+    }
+}
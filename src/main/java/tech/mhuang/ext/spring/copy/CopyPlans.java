@@ -0,0 +1,26 @@
+package tech.mhuang.ext.spring.copy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@link CopyPlan}的容器注解
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CopyPlans {
+
+    /**
+     * 声明的复制计划
+     *
+     * @return 声明的复制计划
+     */
+    CopyPlan[] value();
+}
@@ -0,0 +1,161 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.CollectionFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 深复制计划.
+ * 为子对象、集合元素及Map的值构建嵌套复制计划、并分析目标类型图是否可能成环
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+final class DeepCopyPlanner {
+
+    private static final Map<Class<?>, Boolean> CYCLIC_TYPES = new ConcurrentReferenceHashMap<>(64);
+
+    private DeepCopyPlanner() {
+
+    }
+
+    /**
+     * 创建深复制的属性复制步骤
+     *
+     * @param name        目标属性名
+     * @param readMethod  源读方法
+     * @param writeMethod 目标写方法
+     * @param features    启用的特性、嵌套计划沿用
+     * @return 属性复制步骤、该属性无需深复制时返回null
+     */
+    static PropertyCopier plan(String name, Method readMethod, Method writeMethod, Set<CopyFeature> features) {
+        Class<?> sourceType = readMethod.getReturnType();
+        Class<?> targetType = writeMethod.getParameterTypes()[0];
+        if (isValueType(sourceType) || isValueType(targetType)) {
+            return null;
+        }
+        ResolvableType targetResolvable = ResolvableType.forMethodParameter(writeMethod, 0);
+        if (Collection.class.isAssignableFrom(targetType) && Collection.class.isAssignableFrom(sourceType)) {
+            Class<?> elementType = targetResolvable.asCollection().resolveGeneric(0);
+            return new PropertyCopier.CollectionCopier(name, readMethod, writeMethod,
+                    collectionFactory(targetType, elementType), elementMapping(elementType, features));
+        }
+        if (Map.class.isAssignableFrom(targetType) && Map.class.isAssignableFrom(sourceType)) {
+            ResolvableType mapType = targetResolvable.asMap();
+            Class<?> keyType = mapType.resolveGeneric(0);
+            Class<?> valueType = mapType.resolveGeneric(1);
+            return new PropertyCopier.MapCopier(name, readMethod, writeMethod,
+                    size -> CollectionFactory.createMap(targetType, keyType, size), elementMapping(valueType, features));
+        }
+        if (isBeanType(targetType) && !Collection.class.isAssignableFrom(sourceType) && !Map.class.isAssignableFrom(sourceType)) {
+            return new PropertyCopier.NestedCopier(name, readMethod, writeMethod, BeanCopier.mapping(targetType, features));
+        }
+        return null;
+    }
+
+    /**
+     * 目标类型是否可能出现循环引用、即该类型能经由子对象属性再次到达自身
+     *
+     * @param type 目标类型
+     * @return 可能成环返回true
+     */
+    static boolean isCyclic(Class<?> type) {
+        Boolean cyclic = CYCLIC_TYPES.get(type);
+        if (cyclic == null) {
+            cyclic = reaches(type, type, new HashSet<>());
+            CYCLIC_TYPES.put(type, cyclic);
+        }
+        return cyclic;
+    }
+
+    private static boolean reaches(Class<?> from, Class<?> root, Set<Class<?>> visited) {
+        if (!visited.add(from)) {
+            return false;
+        }
+        for (Class<?> child : childTypes(from)) {
+            if (child == root || reaches(child, root, visited)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Class<?>> childTypes(Class<?> type) {
+        List<Class<?>> children = new ArrayList<>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+            Method writeMethod = pd.getWriteMethod();
+            if (writeMethod == null) {
+                continue;
+            }
+            Class<?> propertyType = writeMethod.getParameterTypes()[0];
+            Class<?> child = propertyType;
+            if (Collection.class.isAssignableFrom(propertyType)) {
+                child = ResolvableType.forMethodParameter(writeMethod, 0).asCollection().resolveGeneric(0);
+            } else if (Map.class.isAssignableFrom(propertyType)) {
+                child = ResolvableType.forMethodParameter(writeMethod, 0).asMap().resolveGeneric(1);
+            }
+            if (child != null && isBeanType(child)) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * 按引用复制的值类型
+     */
+    private static boolean isValueType(Class<?> type) {
+        return BeanUtils.isSimpleProperty(type) || type == Object.class;
+    }
+
+    /**
+     * 可通过无参构造创建并按属性复制的非JDK类型
+     */
+    static boolean isBeanType(Class<?> type) {
+        if (isValueType(type) || type.isInterface() || Modifier.isAbstract(type.getModifiers())
+                || Collection.class.isAssignableFrom(type) || Map.class.isAssignableFrom(type)
+                || type.getName().startsWith("java.") || type.getName().startsWith("javax.")) {
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
+    private static Function<Object, ?> elementMapping(Class<?> elementType, Set<CopyFeature> features) {
+        return (elementType != null && isBeanType(elementType)) ? BeanCopier.mapping(elementType, features) : null;
+    }
+
+    /**
+     * 按目标集合类型创建预设容量的集合
+     */
+    private static IntFunction<Collection<Object>> collectionFactory(Class<?> collectionType, Class<?> elementType) {
+        if (collectionType == ArrayList.class) {
+            return ArrayList::new;
+        }
+        if (collectionType == LinkedHashSet.class) {
+            return LinkedHashSet::new;
+        }
+        if (collectionType == HashSet.class) {
+            return HashSet::new;
+        }
+        return size -> CollectionFactory.createCollection(collectionType, elementType, size);
+    }
+}
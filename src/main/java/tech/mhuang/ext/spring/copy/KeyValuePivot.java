@@ -0,0 +1,237 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StringUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 键值行转实体.
+ * 目标类的key到写方法索引、源类的key与value读方法均只解析一次并缓存,
+ * 转换时每行只读取一次key和value并直接写入
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class KeyValuePivot {
+
+    private static final Map<Class<?>, Map<String, Slot>> TARGET_INDEXES = new ConcurrentReferenceHashMap<>(64);
+
+    private static final Map<RowKey, RowReader> ROW_READERS = new ConcurrentReferenceHashMap<>(64);
+
+    private KeyValuePivot() {
+
+    }
+
+    /**
+     * 将键值行写入新建的目标对象、同一个key出现多次时以最后一行为准
+     *
+     * @param rows        键值行
+     * @param targetClass 目标类
+     * @param fieldKey    行中作为key的属性
+     * @param fieldValue  行中作为value的属性
+     * @param <E>         目标类型
+     * @return 目标对象、行为空时返回null
+     */
+    public static <E> E pivot(List<?> rows, Class<E> targetClass, String fieldKey, String fieldValue) {
+        Assert.notNull(targetClass, "Target class must not be null");
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        E target = Accessors.instantiate(targetClass);
+        Map<String, Slot> index = TARGET_INDEXES.computeIfAbsent(targetClass, KeyValuePivot::buildIndex);
+        RowReader reader = null;
+        for (Object row : rows) {
+            if (row == null) {
+                continue;
+            }
+            reader = readerFor(reader, row.getClass(), fieldKey, fieldValue);
+            Object key = reader.key(row);
+            Slot slot = (key == null ? null : index.get(key.toString()));
+            if (slot != null && reader.value != null) {
+                slot.write(target, reader.value(row), reader.valueType);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 将键值行转换为Map、保持key首次出现的顺序、同一个key出现多次时以最后一行为准
+     *
+     * @param rows       键值行
+     * @param fieldKey   行中作为key的属性
+     * @param fieldValue 行中作为value的属性
+     * @return 转换后的Map
+     */
+    public static Map<String, Object> pivotToMap(List<?> rows, String fieldKey, String fieldValue) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (rows == null) {
+            return result;
+        }
+        RowReader reader = null;
+        for (Object row : rows) {
+            if (row == null) {
+                continue;
+            }
+            reader = readerFor(reader, row.getClass(), fieldKey, fieldValue);
+            Object key = reader.key(row);
+            if (key != null) {
+                result.put(key.toString(), reader.value == null ? null : reader.value(row));
+            }
+        }
+        return result;
+    }
+
+    private static RowReader readerFor(RowReader last, Class<?> rowClass, String fieldKey, String fieldValue) {
+        if (last != null && last.rowClass == rowClass) {
+            return last;
+        }
+        return ROW_READERS.computeIfAbsent(new RowKey(rowClass, fieldKey, fieldValue), KeyValuePivot::buildReader);
+    }
+
+    private static RowReader buildReader(RowKey rowKey) {
+        Method keyMethod = readMethod(rowKey.rowClass, rowKey.fieldKey);
+        Method valueMethod = readMethod(rowKey.rowClass, rowKey.fieldValue);
+        return new RowReader(rowKey.rowClass,
+                keyMethod == null ? null : Accessors.getter(keyMethod),
+                valueMethod == null ? null : Accessors.getter(valueMethod),
+                valueMethod == null ? null : valueMethod.getReturnType());
+    }
+
+    private static Method readMethod(Class<?> rowClass, String property) {
+        PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(rowClass, property);
+        return pd == null ? null : pd.getReadMethod();
+    }
+
+    /**
+     * 按属性名建立写入索引、key首字母大小写均可匹配
+     */
+    private static Map<String, Slot> buildIndex(Class<?> targetClass) {
+        Map<String, Slot> index = new HashMap<>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(targetClass)) {
+            Method writeMethod = pd.getWriteMethod();
+            if (writeMethod != null) {
+                Slot slot = new Slot(pd.getName(), Accessors.setter(writeMethod), writeMethod.getParameterTypes()[0]);
+                index.put(pd.getName(), slot);
+                index.putIfAbsent(StringUtils.capitalize(pd.getName()), slot);
+                index.putIfAbsent(StringUtils.uncapitalize(pd.getName()), slot);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 目标属性的写入位置
+     */
+    private static final class Slot {
+
+        private final String name;
+
+        private final Accessors.Setter setter;
+
+        private final Class<?> type;
+
+        Slot(String name, Accessors.Setter setter, Class<?> type) {
+            this.name = name;
+            this.setter = setter;
+            this.type = type;
+        }
+
+        /**
+         * 值的声明类型可赋值时直接写入、否则按值的实际类型判断
+         */
+        void write(Object target, Object value, Class<?> valueType) {
+            if (!ClassUtils.isAssignable(type, valueType) && !ClassUtils.isAssignableValue(type, value)) {
+                return;
+            }
+            try {
+                setter.set(target, value);
+            } catch (Throwable ex) {
+                throw new FatalBeanException("Could not copy property '" + name + "' from source to target", ex);
+            }
+        }
+    }
+
+    /**
+     * 源行的key和value读取
+     */
+    private static final class RowReader {
+
+        private final Class<?> rowClass;
+
+        private final Accessors.Getter key;
+
+        private final Accessors.Getter value;
+
+        private final Class<?> valueType;
+
+        RowReader(Class<?> rowClass, Accessors.Getter key, Accessors.Getter value, Class<?> valueType) {
+            this.rowClass = rowClass;
+            this.key = key;
+            this.value = value;
+            this.valueType = valueType;
+        }
+
+        Object key(Object row) {
+            return key == null ? null : read(key, row);
+        }
+
+        Object value(Object row) {
+            return read(value, row);
+        }
+
+        private static Object read(Accessors.Getter getter, Object row) {
+            try {
+                return getter.get(row);
+            } catch (Throwable ex) {
+                throw new FatalBeanException("Could not read key value row " + row.getClass().getName(), ex);
+            }
+        }
+    }
+
+    /**
+     * 源行读取的缓存key
+     */
+    private static final class RowKey {
+
+        private final Class<?> rowClass;
+
+        private final String fieldKey;
+
+        private final String fieldValue;
+
+        RowKey(Class<?> rowClass, String fieldKey, String fieldValue) {
+            this.rowClass = rowClass;
+            this.fieldKey = fieldKey;
+            this.fieldValue = fieldValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RowKey)) {
+                return false;
+            }
+            RowKey rowKey = (RowKey) o;
+            return rowClass == rowKey.rowClass && Objects.equals(fieldKey, rowKey.fieldKey)
+                    && Objects.equals(fieldValue, rowKey.fieldValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rowClass, fieldKey, fieldValue);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.FatalBeanException;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.converter.GenericConverter;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * 单个属性的复制步骤
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+abstract class PropertyCopier {
+
+    private final String name;
+
+    PropertyCopier(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 获取复制的目标属性名
+     *
+     * @return 目标属性名
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * 复制属性、异常统一包装为FatalBeanException
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    final void copy(Object source, Object target) {
+        try {
+            doCopy(source, target);
+        } catch (Throwable ex) {
+            throw new FatalBeanException("Could not copy property '" + name + "' from source to target", ex);
+        }
+    }
+
+    /**
+     * 执行复制
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     * @throws Throwable 访问器抛出的异常
+     */
+    abstract void doCopy(Object source, Object target) throws Throwable;
+
+    /**
+     * 通用的读写复制
+     */
+    static final class Direct extends PropertyCopier {
+
+        private final Accessors.Getter getter;
+
+        private final Accessors.Setter setter;
+
+        Direct(String name, Accessors.Getter getter, Accessors.Setter setter) {
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, getter.get(source));
+        }
+    }
+
+    /**
+     * 类型不一致时经转换器的复制、转换器在构建时解析
+     */
+    static final class Converting extends PropertyCopier {
+
+        private final Accessors.Getter getter;
+
+        private final Accessors.Setter setter;
+
+        private final GenericConverter converter;
+
+        private final TypeDescriptor sourceType;
+
+        private final TypeDescriptor targetType;
+
+        private final boolean primitiveTarget;
+
+        Converting(String name, Method readMethod, Method writeMethod, GenericConverter converter,
+                   TypeDescriptor sourceType, TypeDescriptor targetType) {
+            super(name);
+            this.getter = Accessors.getter(readMethod);
+            this.setter = Accessors.setter(writeMethod);
+            this.converter = converter;
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.primitiveTarget = targetType.isPrimitive();
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            Object value = getter.get(source);
+            if (value == null) {
+                if (!primitiveTarget) {
+                    setter.set(target, null);
+                }
+                return;
+            }
+            setter.set(target, converter.convert(value, sourceType, targetType));
+        }
+    }
+
+    /**
+     * 子对象的深复制、按子对象的实际类型使用嵌套复制计划
+     */
+    static final class NestedCopier extends PropertyCopier {
+
+        private final Accessors.Getter getter;
+
+        private final Accessors.Setter setter;
+
+        private final Function<Object, ?> mapping;
+
+        NestedCopier(String name, Method readMethod, Method writeMethod, Function<Object, ?> mapping) {
+            super(name);
+            this.getter = Accessors.getter(readMethod);
+            this.setter = Accessors.setter(writeMethod);
+            this.mapping = mapping;
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, mapping.apply(getter.get(source)));
+        }
+    }
+
+    /**
+     * 集合的深复制、按源集合大小预设容量、元素为子对象时使用嵌套复制计划
+     */
+    static final class CollectionCopier extends PropertyCopier {
+
+        private final Accessors.Getter getter;
+
+        private final Accessors.Setter setter;
+
+        private final IntFunction<Collection<Object>> factory;
+
+        private final Function<Object, ?> elementMapping;
+
+        CollectionCopier(String name, Method readMethod, Method writeMethod,
+                         IntFunction<Collection<Object>> factory, Function<Object, ?> elementMapping) {
+            super(name);
+            this.getter = Accessors.getter(readMethod);
+            this.setter = Accessors.setter(writeMethod);
+            this.factory = factory;
+            this.elementMapping = elementMapping;
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            Collection<?> values = (Collection<?>) getter.get(source);
+            if (values == null) {
+                setter.set(target, null);
+                return;
+            }
+            Collection<Object> copied = factory.apply(values.size());
+            for (Object value : values) {
+                copied.add(elementMapping == null ? value : elementMapping.apply(value));
+            }
+            setter.set(target, copied);
+        }
+    }
+
+    /**
+     * Map的深复制、key按引用复制、value为子对象时使用嵌套复制计划
+     */
+    static final class MapCopier extends PropertyCopier {
+
+        private final Accessors.Getter getter;
+
+        private final Accessors.Setter setter;
+
+        private final IntFunction<Map<Object, Object>> factory;
+
+        private final Function<Object, ?> valueMapping;
+
+        MapCopier(String name, Method readMethod, Method writeMethod,
+                  IntFunction<Map<Object, Object>> factory, Function<Object, ?> valueMapping) {
+            super(name);
+            this.getter = Accessors.getter(readMethod);
+            this.setter = Accessors.setter(writeMethod);
+            this.factory = factory;
+            this.valueMapping = valueMapping;
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            Map<?, ?> values = (Map<?, ?>) getter.get(source);
+            if (values == null) {
+                setter.set(target, null);
+                return;
+            }
+            Map<Object, Object> copied = factory.apply(values.size());
+            for (Map.Entry<?, ?> entry : values.entrySet()) {
+                Object value = entry.getValue();
+                copied.put(entry.getKey(), valueMapping == null ? value : valueMapping.apply(value));
+            }
+            setter.set(target, copied);
+        }
+    }
+
+    /**
+     * int到int的复制、不经过装箱
+     */
+    static final class IntCopier extends PropertyCopier {
+
+        private final Accessors.IntGetter getter;
+
+        private final Accessors.IntSetter setter;
+
+        IntCopier(String name, Method readMethod, Method writeMethod) {
+            super(name);
+            this.getter = Accessors.intGetter(readMethod);
+            this.setter = Accessors.intSetter(writeMethod);
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, getter.get(source));
+        }
+    }
+
+    /**
+     * long到long的复制、不经过装箱
+     */
+    static final class LongCopier extends PropertyCopier {
+
+        private final Accessors.LongGetter getter;
+
+        private final Accessors.LongSetter setter;
+
+        LongCopier(String name, Method readMethod, Method writeMethod) {
+            super(name);
+            this.getter = Accessors.longGetter(readMethod);
+            this.setter = Accessors.longSetter(writeMethod);
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, getter.get(source));
+        }
+    }
+
+    /**
+     * double到double的复制、不经过装箱
+     */
+    static final class DoubleCopier extends PropertyCopier {
+
+        private final Accessors.DoubleGetter getter;
+
+        private final Accessors.DoubleSetter setter;
+
+        DoubleCopier(String name, Method readMethod, Method writeMethod) {
+            super(name);
+            this.getter = Accessors.doubleGetter(readMethod);
+            this.setter = Accessors.doubleSetter(writeMethod);
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, getter.get(source));
+        }
+    }
+
+    /**
+     * boolean到boolean的复制、不经过装箱
+     */
+    static final class BooleanCopier extends PropertyCopier {
+
+        private final Accessors.BooleanGetter getter;
+
+        private final Accessors.BooleanSetter setter;
+
+        BooleanCopier(String name, Method readMethod, Method writeMethod) {
+            super(name);
+            this.getter = Accessors.booleanGetter(readMethod);
+            this.setter = Accessors.booleanSetter(writeMethod);
+        }
+
+        @Override
+        void doCopy(Object source, Object target) throws Throwable {
+            setter.set(target, getter.get(source));
+        }
+    }
+
+    /**
+     * 创建属性复制步骤、int/long/double/boolean之间的同类型复制使用不装箱的访问器
+     *
+     * @param name        目标属性名
+     * @param readMethod  源读方法
+     * @param writeMethod 目标写方法
+     * @return 属性复制步骤
+     */
+    static PropertyCopier of(String name, Method readMethod, Method writeMethod) {
+        Class<?> type = readMethod.getReturnType();
+        if (type == writeMethod.getParameterTypes()[0]) {
+            if (type == int.class) {
+                return new IntCopier(name, readMethod, writeMethod);
+            }
+            if (type == long.class) {
+                return new LongCopier(name, readMethod, writeMethod);
+            }
+            if (type == double.class) {
+                return new DoubleCopier(name, readMethod, writeMethod);
+            }
+            if (type == boolean.class) {
+                return new BooleanCopier(name, readMethod, writeMethod);
+            }
+        }
+        return new Direct(name, Accessors.getter(readMethod), Accessors.setter(writeMethod));
+    }
+
+    /**
+     * 创建经类型转换的属性复制步骤
+     *
+     * @param name        目标属性名
+     * @param readMethod  源读方法
+     * @param writeMethod 目标写方法
+     * @return 属性复制步骤、无可用转换时返回null
+     */
+    static PropertyCopier converting(String name, Method readMethod, Method writeMethod) {
+        TypeDescriptor sourceType = new TypeDescriptor(MethodParameter.forExecutable(readMethod, -1));
+        TypeDescriptor targetType = new TypeDescriptor(MethodParameter.forExecutable(writeMethod, 0));
+        GenericConverter converter = CopyConverters.resolve(sourceType, targetType);
+        return converter == null ? null : new Converting(name, readMethod, writeMethod, converter, sourceType, targetType);
+    }
+}
@@ -0,0 +1,146 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.FatalBeanException;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按属性名读取对象的值.
+ * 每个(类,属性)的读方法只解析一次并生成访问器缓存。
+ * 属性名可能来自调用方的任意输入、不存在或不可读的属性不缓存、避免缓存无限增长
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class PropertyReader {
+
+    private static final Map<Class<?>, Map<String, PropertyReader>> CACHE = new ConcurrentReferenceHashMap<>(64);
+
+    /**
+     * 不可读属性的占位
+     */
+    private static final PropertyReader NONE = new PropertyReader(null, null);
+
+    private final String name;
+
+    private final Accessors.Getter getter;
+
+    private PropertyReader(String name, Accessors.Getter getter) {
+        this.name = name;
+        this.getter = getter;
+    }
+
+    /**
+     * 获取类的属性读取器
+     *
+     * @param beanClass 类
+     * @param property  属性名
+     * @return 属性读取器、属性不存在或不可读时对所有对象返回null
+     */
+    public static PropertyReader of(Class<?> beanClass, String property) {
+        Assert.notNull(beanClass, "Bean class must not be null");
+        Assert.notNull(property, "Property must not be null");
+        Map<String, PropertyReader> readers = CACHE.computeIfAbsent(beanClass, k -> new ConcurrentHashMap<>(16));
+        PropertyReader reader = readers.get(property);
+        if (reader == null) {
+            Method readMethod = readMethod(beanClass, property);
+            if (readMethod == null) {
+                return NONE;
+            }
+            reader = readers.computeIfAbsent(property, p -> new PropertyReader(p, Accessors.getter(readMethod)));
+        }
+        return reader;
+    }
+
+    private static Method readMethod(Class<?> beanClass, String property) {
+        PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(beanClass, property);
+        return (pd == null ? null : pd.getReadMethod());
+    }
+
+    /**
+     * 读取对象的属性值
+     *
+     * @param bean     对象
+     * @param property 属性名
+     * @return 属性值、属性不存在或不可读时返回null
+     */
+    public static Object read(Object bean, String property) {
+        return of(bean.getClass(), property).read(bean);
+    }
+
+    /**
+     * 读取对象的多个属性值
+     *
+     * @param bean       对象
+     * @param properties 属性名
+     * @return 按传入顺序组成的属性名与值
+     */
+    public static Map<String, Object> readMany(Object bean, String... properties) {
+        Map<String, Object> values = new LinkedHashMap<>(properties.length * 2);
+        Class<?> beanClass = bean.getClass();
+        for (String property : properties) {
+            values.put(property, of(beanClass, property).read(bean));
+        }
+        return values;
+    }
+
+    /**
+     * 读取列表中每个对象的同一属性值
+     *
+     * @param beans    对象列表
+     * @param property 属性名
+     * @return 按列表顺序的属性值、null对象对应null
+     */
+    public static List<Object> readEach(List<?> beans, String property) {
+        List<Object> values = new ArrayList<>(beans.size());
+        PropertyReader reader = null;
+        Class<?> readerClass = null;
+        for (Object bean : beans) {
+            if (bean == null) {
+                values.add(null);
+                continue;
+            }
+            if (bean.getClass() != readerClass) {
+                readerClass = bean.getClass();
+                reader = of(readerClass, property);
+            }
+            values.add(reader.read(bean));
+        }
+        return values;
+    }
+
+    /**
+     * 属性是否可读
+     *
+     * @return 可读返回true
+     */
+    public boolean isReadable() {
+        return getter != null;
+    }
+
+    /**
+     * 读取属性值
+     *
+     * @param bean 对象
+     * @return 属性值、不可读时返回null
+     */
+    public Object read(Object bean) {
+        if (getter == null) {
+            return null;
+        }
+        try {
+            return getter.get(bean);
+        } catch (Throwable ex) {
+            throw new FatalBeanException("Could not read property '" + name + "' from " + bean.getClass().getName(), ex);
+        }
+    }
+}
@@ -55,15 +55,20 @@ public abstract class AbstractPropertySourceUtils {
 	 * @param keyPrefix the key prefixes to test
 	 * @return a map of all sub properties starting with the specified key prefixes.
 	 * @see #getSubProperties(PropertySources, String, String)
+	 * @see #getIndexedSubProperties(PropertySources, String, String)
 	 */
 	public static Map<String, Object> getSubProperties(PropertySources propertySources,
 			String rootPrefix, String keyPrefix) {
+		RelaxedLookupStats stats = RelaxedLookupStats.active();
+		long start = (stats != null ? System.nanoTime() : 0L);
+		int probes = 0;
 		RelaxedNames keyPrefixes = new RelaxedNames(keyPrefix);
 		Map<String, Object> subProperties = new LinkedHashMap<String, Object>();
 		for (PropertySource<?> source : propertySources) {
 			if (source instanceof EnumerablePropertySource) {
-				for (String name : ((EnumerablePropertySource<?>) source)
-						.getPropertyNames()) {
+				String[] names = ((EnumerablePropertySource<?>) source).getPropertyNames();
+				probes += names.length;
+				for (String name : names) {
 					String key = AbstractPropertySourceUtils.getSubKey(name, rootPrefix,
 							keyPrefixes);
 					if (key != null && !subProperties.containsKey(key)) {
@@ -72,9 +77,32 @@ public abstract class AbstractPropertySourceUtils {
 				}
 			}
 		}
+		if (stats != null) {
+			stats.record((rootPrefix == null ? "" : rootPrefix) + keyPrefix + "*",
+					!subProperties.isEmpty(), probes, System.nanoTime() - start);
+		}
 		return Collections.unmodifiableMap(subProperties);
 	}
 
+	/**
+	 * Return the same Map as {@link #getSubProperties(PropertySources, String, String)},
+	 * using sorted property names that are kept per {@link PropertySources} and reused
+	 * across calls instead of testing every name against every relaxed prefix. Sources
+	 * added or removed are picked up through {@link PropertySourcesTracker}, names added
+	 * to or removed from an existing source must be reported with
+	 * {@link PropertySourcesTracker#markChanged(String)}.
+	 * @param propertySources the property sources to scan
+	 * @param rootPrefix a root prefix to be prepended to the keyPrefix (can be
+	 * {@code null})
+	 * @param keyPrefix the key prefixes to test
+	 * @return a map of all sub properties starting with the specified key prefixes.
+	 */
+	public static Map<String, Object> getIndexedSubProperties(
+			PropertySources propertySources, String rootPrefix, String keyPrefix) {
+		return PropertyNamePrefixIndex.of(propertySources).getSubProperties(rootPrefix,
+				keyPrefix);
+	}
+
 	private static String getSubKey(String name, String rootPrefixes,
 			RelaxedNames keyPrefix) {
 		rootPrefixes = (rootPrefixes == null ? "" : rootPrefixes);
@@ -0,0 +1,177 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text with {@code ${key:default}} placeholders, parsed once into a list of literal and
+ * reference segments. Parsed templates are cached by their source text, so resolving the
+ * same text again only walks the segments and concatenates the values.
+ * <p>
+ * Keys and default values may contain placeholders themselves. A placeholder whose key is
+ * not found and that has no default value is either kept as is or reported as an error,
+ * depending on whether resolution is required.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ * @see RelaxedPropertyResolver#resolvePlaceholders(String)
+ */
+final class PlaceholderTemplate {
+
+	private static final String PREFIX = "${";
+
+	private static final String SUFFIX = "}";
+
+	private static final char SEPARATOR = ':';
+
+	private static final Map<String, PlaceholderTemplate> TEMPLATES = new ConcurrentReferenceHashMap<String, PlaceholderTemplate>(
+			64);
+
+	private final String text;
+
+	private final Object[] segments;
+
+	private PlaceholderTemplate(String text, Object[] segments) {
+		this.text = text;
+		this.segments = segments;
+	}
+
+	/**
+	 * Return the parsed template for the given text.
+	 * @param text the text to parse
+	 * @return the template
+	 */
+	static PlaceholderTemplate parse(String text) {
+		PlaceholderTemplate template = TEMPLATES.get(text);
+		if (template == null) {
+			template = compile(text);
+			TEMPLATES.put(text, template);
+		}
+		return template;
+	}
+
+	private static PlaceholderTemplate compile(String text) {
+		List<Object> segments = new ArrayList<Object>();
+		int start = text.indexOf(PREFIX);
+		int literalStart = 0;
+		while (start != -1) {
+			int end = findPlaceholderEnd(text, start);
+			if (end == -1) {
+				break;
+			}
+			if (start > literalStart) {
+				segments.add(text.substring(literalStart, start));
+			}
+			String content = text.substring(start + PREFIX.length(), end);
+			int separator = findSeparator(content);
+			segments.add(separator == -1 ? new Reference(content, parse(content), null)
+					: new Reference(content, parse(content.substring(0, separator)),
+							parse(content.substring(separator + 1))));
+			literalStart = end + SUFFIX.length();
+			start = text.indexOf(PREFIX, literalStart);
+		}
+		if (literalStart < text.length()) {
+			segments.add(text.substring(literalStart));
+		}
+		return new PlaceholderTemplate(text, segments.toArray());
+	}
+
+	private static int findPlaceholderEnd(String text, int start) {
+		int depth = 0;
+		for (int i = start + PREFIX.length(); i < text.length(); i++) {
+			if (text.startsWith(PREFIX, i)) {
+				depth++;
+				i += PREFIX.length() - 1;
+			}
+			else if (text.charAt(i) == '}') {
+				if (depth == 0) {
+					return i;
+				}
+				depth--;
+			}
+		}
+		return -1;
+	}
+
+	private static int findSeparator(String content) {
+		int depth = 0;
+		for (int i = 0; i < content.length(); i++) {
+			if (content.startsWith(PREFIX, i)) {
+				depth++;
+				i += PREFIX.length() - 1;
+			}
+			else if (content.charAt(i) == '}') {
+				depth--;
+			}
+			else if (depth == 0 && content.charAt(i) == SEPARATOR) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Resolve the template against the given resolver.
+	 * @param resolver the resolver used to look up keys
+	 * @param required if a placeholder that cannot be resolved is an error
+	 * @return the resolved text
+	 * @throws IllegalArgumentException if required and a placeholder cannot be resolved
+	 */
+	String resolve(RelaxedPropertyResolver resolver, boolean required) {
+		if (this.segments.length == 1 && this.segments[0] instanceof String) {
+			return (String) this.segments[0];
+		}
+		StringBuilder builder = new StringBuilder(this.text.length() + 16);
+		for (Object segment : this.segments) {
+			if (segment instanceof String) {
+				builder.append((String) segment);
+			}
+			else {
+				((Reference) segment).appendTo(builder, resolver, required, this.text);
+			}
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Reference to a property, with an optional default value.
+	 */
+	private static final class Reference {
+
+		private final String placeholder;
+
+		private final PlaceholderTemplate key;
+
+		private final PlaceholderTemplate defaultValue;
+
+		Reference(String placeholder, PlaceholderTemplate key,
+				PlaceholderTemplate defaultValue) {
+			this.placeholder = placeholder;
+			this.key = key;
+			this.defaultValue = defaultValue;
+		}
+
+		void appendTo(StringBuilder builder, RelaxedPropertyResolver resolver,
+				boolean required, String text) {
+			String key = this.key.resolve(resolver, required);
+			String value = resolver.getProperty(key);
+			if (value == null && this.defaultValue != null) {
+				value = this.defaultValue.resolve(resolver, required);
+			}
+			if (value == null) {
+				if (required) {
+					throw new IllegalArgumentException("Could not resolve placeholder '"
+							+ key + "' in value \"" + text + "\"");
+				}
+				builder.append(PREFIX).append(this.placeholder).append(SUFFIX);
+				return;
+			}
+			builder.append(value);
+		}
+
+	}
+
+}
@@ -0,0 +1,281 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Prefix index of the enumerable property names of some {@link PropertySources}, used to
+ * extract sub properties without testing every property name against every relaxed
+ * prefix.
+ * <p>
+ * The names of each source are kept sorted, which flattens a prefix trie into an array:
+ * the names below a prefix form one contiguous range that is found with two binary
+ * searches. The index follows the changes reported by a {@link PropertySourcesTracker}
+ * and only sorts the names of sources that were added or marked as changed. As for
+ * {@link RelaxedPropertyIndex}, names added to or removed from an existing source must be
+ * reported with {@link PropertySourcesTracker#markChanged(String)}. Each state is
+ * immutable once published.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ * @see AbstractPropertySourceUtils#getIndexedSubProperties(PropertySources, String, String)
+ */
+final class PropertyNamePrefixIndex {
+
+	private static final Map<PropertySources, PropertyNamePrefixIndex> INDEXES = new WeakHashMap<PropertySources, PropertyNamePrefixIndex>(
+			4);
+
+	private final PropertySourcesTracker tracker;
+
+	private volatile State state;
+
+	private PropertyNamePrefixIndex(PropertySourcesTracker tracker) {
+		this.tracker = tracker;
+	}
+
+	/**
+	 * Return the shared index over the given property sources.
+	 * @param propertySources the property sources, in priority order
+	 * @return the index
+	 */
+	static PropertyNamePrefixIndex of(PropertySources propertySources) {
+		Assert.notNull(propertySources, "PropertySources must not be null");
+		synchronized (INDEXES) {
+			PropertyNamePrefixIndex index = INDEXES.get(propertySources);
+			if (index == null) {
+				index = new PropertyNamePrefixIndex(
+						PropertySourcesTracker.of(propertySources));
+				INDEXES.put(propertySources, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Create the shared index over the given property sources from the sorted orders
+	 * stored in a snapshot, unless an index already exists or the sources changed since
+	 * the snapshot was matched.
+	 * @param propertySources the property sources, in priority order
+	 * @param version the version of the sources the snapshot was matched against
+	 * @param snapshot the snapshot
+	 */
+	static void seed(PropertySources propertySources, long version,
+			RelaxedPropertySnapshot snapshot) {
+		synchronized (INDEXES) {
+			if (INDEXES.containsKey(propertySources)) {
+				return;
+			}
+			PropertyNamePrefixIndex index = new PropertyNamePrefixIndex(
+					PropertySourcesTracker.of(propertySources));
+			PropertySourcesTracker.Snapshot current = index.tracker.current();
+			if (current.getVersion() == version) {
+				index.state = new State(current, snapshot);
+				INDEXES.put(propertySources, index);
+			}
+		}
+	}
+
+	/**
+	 * Return all values whose name starts with one of the relaxed variations of the root
+	 * prefix followed by one of the relaxed variations of the key prefix, keyed by the
+	 * rest of the name. Sources are visited in priority order and, within a source, names
+	 * keep their enumeration order.
+	 * @param rootPrefix the root prefix (can be {@code null})
+	 * @param keyPrefix the key prefix
+	 * @return the sub properties
+	 */
+	Map<String, Object> getSubProperties(String rootPrefix, String keyPrefix) {
+		RelaxedLookupStats stats = RelaxedLookupStats.active();
+		long start = (stats != null ? System.nanoTime() : 0L);
+		int probes = 0;
+		Set<String> prefixes = new LinkedHashSet<String>();
+		RelaxedNames keyPrefixes = new RelaxedNames(keyPrefix);
+		for (String root : new RelaxedNames(rootPrefix == null ? "" : rootPrefix)) {
+			for (String key : keyPrefixes) {
+				prefixes.add(root + key);
+			}
+		}
+		Map<String, Object> subProperties = new LinkedHashMap<String, Object>();
+		Segment[] segments = state().segments;
+		for (Segment segment : segments) {
+			if (segment.sorted == null) {
+				continue;
+			}
+			Map<Integer, Integer> matched = new TreeMap<Integer, Integer>();
+			for (String prefix : prefixes) {
+				segment.collect(prefix, matched);
+			}
+			probes += prefixes.size();
+			for (Map.Entry<Integer, Integer> match : matched.entrySet()) {
+				String name = segment.names[match.getKey()];
+				String key = name.substring(match.getValue());
+				if (!subProperties.containsKey(key)) {
+					subProperties.put(key, segment.source.getProperty(name));
+				}
+			}
+		}
+		if (stats != null) {
+			stats.record((rootPrefix == null ? "" : rootPrefix) + keyPrefix + "*",
+					!subProperties.isEmpty(), probes, System.nanoTime() - start);
+		}
+		return Collections.unmodifiableMap(subProperties);
+	}
+
+	private State state() {
+		State state = this.state;
+		PropertySourcesTracker.Snapshot snapshot = this.tracker.current();
+		if (state == null || state.version != snapshot.getVersion()) {
+			synchronized (this) {
+				state = this.state;
+				snapshot = this.tracker.current();
+				if (state == null || state.version != snapshot.getVersion()) {
+					state = new State(snapshot, state);
+					this.state = state;
+				}
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Return the positions of the given names in sorted order.
+	 * @param names the names
+	 * @return the sorted positions
+	 */
+	static int[] sortedOrder(final String[] names) {
+		Integer[] sorted = new Integer[names.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+
+			@Override
+			public int compare(Integer left, Integer right) {
+				return names[left].compareTo(names[right]);
+			}
+
+		});
+		int[] order = new int[sorted.length];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = sorted[i];
+		}
+		return order;
+	}
+
+	/**
+	 * Index at one version of the property sources.
+	 */
+	private static final class State {
+
+		private final long version;
+
+		private final Segment[] segments;
+
+		private final Map<Long, Segment> byStamp;
+
+		State(PropertySourcesTracker.Snapshot snapshot, RelaxedPropertySnapshot loaded) {
+			Segment[] segments = new Segment[snapshot.size()];
+			Map<Long, Segment> byStamp = new HashMap<Long, Segment>(snapshot.size() * 2);
+			for (int i = 0; i < segments.length; i++) {
+				segments[i] = new Segment(snapshot.getSource(i),
+						loaded.getPropertyNames(i), loaded.getSortedOrder(i));
+				byStamp.put(snapshot.getStamp(i), segments[i]);
+			}
+			this.version = snapshot.getVersion();
+			this.segments = segments;
+			this.byStamp = byStamp;
+		}
+
+		State(PropertySourcesTracker.Snapshot snapshot, State previous) {
+			Segment[] segments = new Segment[snapshot.size()];
+			Map<Long, Segment> byStamp = new HashMap<Long, Segment>(snapshot.size() * 2);
+			for (int i = 0; i < segments.length; i++) {
+				Long stamp = snapshot.getStamp(i);
+				Segment segment = (previous == null ? null : previous.byStamp.get(stamp));
+				if (segment == null) {
+					segment = new Segment(snapshot.getSource(i));
+				}
+				segments[i] = segment;
+				byStamp.put(stamp, segment);
+			}
+			this.version = snapshot.getVersion();
+			this.segments = segments;
+			this.byStamp = byStamp;
+		}
+
+	}
+
+	/**
+	 * Sorted names of a single property source, {@code null} when the source is not
+	 * enumerable.
+	 */
+	private static final class Segment {
+
+		private final PropertySource<?> source;
+
+		private final String[] names;
+
+		private final int[] sorted;
+
+		Segment(PropertySource<?> source) {
+			this(source, (source instanceof EnumerablePropertySource
+					? ((EnumerablePropertySource<?>) source).getPropertyNames() : null));
+		}
+
+		private Segment(PropertySource<?> source, String[] names) {
+			this(source, names, (names != null ? sortedOrder(names) : null));
+		}
+
+		Segment(PropertySource<?> source, String[] names, int[] sorted) {
+			this.source = source;
+			this.names = names;
+			this.sorted = sorted;
+		}
+
+		/**
+		 * Record the position of every name starting with the given prefix, together
+		 * with the prefix length, unless an earlier prefix already matched it.
+		 */
+		void collect(String prefix, Map<Integer, Integer> matched) {
+			for (int i = lowerBound(prefix); i < this.sorted.length; i++) {
+				int position = this.sorted[i];
+				if (!this.names[position].startsWith(prefix)) {
+					break;
+				}
+				if (!matched.containsKey(position)) {
+					matched.put(position, prefix.length());
+				}
+			}
+		}
+
+		private int lowerBound(String prefix) {
+			int low = 0;
+			int high = this.sorted.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (this.names[this.sorted[middle]].compareTo(prefix) < 0) {
+					low = middle + 1;
+				}
+				else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+	}
+
+}
@@ -0,0 +1,186 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+import org.springframework.util.Assert;
+
+import java.lang.ref.Reference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks changes to some {@link PropertySources} so that indexes built over them can
+ * tell cheaply whether they are still current.
+ * <p>
+ * Each {@link PropertySource} is given a stamp when it is first seen. Adding, removing,
+ * replacing or reordering sources changes the overall {@link #getVersion() version}
+ * while sources that are still present keep their stamp, allowing indexes to rebuild
+ * only the parts derived from the sources that changed. Changes made inside an existing
+ * source (for example to the map backing a {@code MapPropertySource}) cannot be
+ * detected and must be reported with {@link #markChanged(String)}.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class PropertySourcesTracker {
+
+	private static final Map<PropertySources, PropertySourcesTracker> TRACKERS = new WeakHashMap<PropertySources, PropertySourcesTracker>(
+			4);
+
+	private static final AtomicLong STAMPS = new AtomicLong();
+
+	private final Reference<PropertySources> propertySources;
+
+	private volatile Snapshot snapshot;
+
+	private PropertySourcesTracker(PropertySources propertySources) {
+		this.propertySources = new WeakReference<PropertySources>(propertySources);
+		this.snapshot = new Snapshot(0, read(propertySources), null);
+	}
+
+	/**
+	 * Return the shared tracker for the given property sources.
+	 * @param propertySources the property sources to track
+	 * @return the tracker
+	 */
+	public static PropertySourcesTracker of(PropertySources propertySources) {
+		Assert.notNull(propertySources, "PropertySources must not be null");
+		synchronized (TRACKERS) {
+			PropertySourcesTracker tracker = TRACKERS.get(propertySources);
+			if (tracker == null) {
+				tracker = new PropertySourcesTracker(propertySources);
+				TRACKERS.put(propertySources, tracker);
+			}
+			return tracker;
+		}
+	}
+
+	/**
+	 * Return the current version, first checking the property sources for changes. The
+	 * check only compares the sources by identity, a new snapshot is taken when
+	 * something has changed.
+	 * @return the current version
+	 */
+	public long getVersion() {
+		return current().version;
+	}
+
+	/**
+	 * Report that the content of the named property source has changed, giving it a new
+	 * stamp and bumping the version.
+	 * @param name the name of the property source
+	 */
+	public synchronized void markChanged(String name) {
+		Snapshot current = current();
+		PropertySource<?>[] sources = current.sources;
+		long[] sourceStamps = current.stamps.clone();
+		for (int i = 0; i < sources.length; i++) {
+			if (sources[i].getName().equals(name)) {
+				sourceStamps[i] = STAMPS.incrementAndGet();
+			}
+		}
+		this.snapshot = new Snapshot(current.version + 1, sources, sourceStamps);
+	}
+
+	/**
+	 * Return the current snapshot of the property sources in priority order.
+	 * @return the snapshot
+	 */
+	Snapshot current() {
+		Snapshot snapshot = this.snapshot;
+		PropertySources propertySources = this.propertySources.get();
+		if (propertySources != null && !snapshot.matches(propertySources)) {
+			synchronized (this) {
+				snapshot = this.snapshot;
+				if (!snapshot.matches(propertySources)) {
+					PropertySource<?>[] sources = read(propertySources);
+					snapshot = new Snapshot(snapshot.version + 1, sources,
+							snapshot.restamp(sources));
+					this.snapshot = snapshot;
+				}
+			}
+		}
+		return snapshot;
+	}
+
+	private static PropertySource<?>[] read(PropertySources propertySources) {
+		List<PropertySource<?>> sources = new ArrayList<PropertySource<?>>();
+		for (PropertySource<?> source : propertySources) {
+			sources.add(source);
+		}
+		return sources.toArray(new PropertySource<?>[0]);
+	}
+
+	/**
+	 * Immutable view of the tracked property sources at one version.
+	 */
+	static final class Snapshot {
+
+		private final long version;
+
+		private final PropertySource<?>[] sources;
+
+		private final long[] stamps;
+
+		Snapshot(long version, PropertySource<?>[] sources, long[] sourceStamps) {
+			this.version = version;
+			this.sources = sources;
+			if (sourceStamps == null) {
+				sourceStamps = new long[sources.length];
+				for (int i = 0; i < sourceStamps.length; i++) {
+					sourceStamps[i] = STAMPS.incrementAndGet();
+				}
+			}
+			this.stamps = sourceStamps;
+		}
+
+		long getVersion() {
+			return this.version;
+		}
+
+		int size() {
+			return this.sources.length;
+		}
+
+		PropertySource<?> getSource(int index) {
+			return this.sources[index];
+		}
+
+		long getStamp(int index) {
+			return this.stamps[index];
+		}
+
+		private boolean matches(PropertySources propertySources) {
+			Iterator<PropertySource<?>> iterator = propertySources.iterator();
+			for (PropertySource<?> source : this.sources) {
+				if (!iterator.hasNext() || iterator.next() != source) {
+					return false;
+				}
+			}
+			return !iterator.hasNext();
+		}
+
+		private long[] restamp(PropertySource<?>[] sources) {
+			Map<PropertySource<?>, Long> previous = new IdentityHashMap<PropertySource<?>, Long>(
+					this.sources.length * 2);
+			for (int i = 0; i < this.sources.length; i++) {
+				previous.put(this.sources[i], this.stamps[i]);
+			}
+			long[] sourceStamps = new long[sources.length];
+			for (int i = 0; i < sources.length; i++) {
+				Long stamp = previous.get(sources[i]);
+				sourceStamps[i] = (stamp != null ? stamp
+						: STAMPS.incrementAndGet());
+			}
+			return sourceStamps;
+		}
+
+	}
+
+}
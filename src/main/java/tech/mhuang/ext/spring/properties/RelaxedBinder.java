@@ -0,0 +1,219 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.core.env.ConfigurablePropertyResolver;
+import org.springframework.core.env.PropertyResolver;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds the properties below the prefix of a {@link RelaxedPropertyResolver} onto the
+ * writable properties of a target class.
+ * <p>
+ * The binding plan is compiled once per target class: the list of writable properties,
+ * a method handle to the setter of each and the
+ * {@link TypeDescriptor} each value is converted to. The names a property is looked up
+ * under are computed once per resolver prefix. Binding then runs the plan in a single
+ * pass, looking each property up (a single probe when the resolver is
+ * {@link RelaxedPropertyResolver#indexed indexed}) and converting the value with the
+ * conversion service of the underlying resolver. Whether a property can be converted is
+ * decided against that service when binding, so converters registered only on the
+ * environment are honoured. Properties that are not found, cannot be converted or
+ * convert to {@code null} for a primitive property keep their current value, so rebinding an existing instance after a refresh reuses the same
+ * plan.
+ *
+ * @param <T> the target type
+ * @author mhuang
+ * @since 1.3.1
+ * @see RelaxedPropertyResolver#bind(Class)
+ */
+public final class RelaxedBinder<T> {
+
+	private static final Map<Class<?>, RelaxedBinder<?>> BINDERS = new ConcurrentReferenceHashMap<Class<?>, RelaxedBinder<?>>(
+			64);
+
+	private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+	private final Class<T> type;
+
+	private final Binding[] bindings;
+
+	/**
+	 * Lookup names of every binding keyed by resolver prefix.
+	 */
+	private final Map<String, LookupNames[]> lookupNames = new ConcurrentReferenceHashMap<String, LookupNames[]>(
+			4);
+
+	private RelaxedBinder(Class<T> type) {
+		List<Binding> bindings = new ArrayList<Binding>();
+		for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(type)) {
+			Method writeMethod = pd.getWriteMethod();
+			if (writeMethod != null) {
+				bindings.add(new Binding(pd.getName(), writeMethod));
+			}
+		}
+		this.type = type;
+		this.bindings = bindings.toArray(new Binding[0]);
+	}
+
+	/**
+	 * Return the binder for the given target class, compiling its plan on first use.
+	 * @param type the target class
+	 * @param <T> the target type
+	 * @return the binder
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> RelaxedBinder<T> of(Class<T> type) {
+		Assert.notNull(type, "Type must not be null");
+		RelaxedBinder<T> binder = (RelaxedBinder<T>) BINDERS.get(type);
+		if (binder == null) {
+			binder = new RelaxedBinder<T>(type);
+			BINDERS.put(type, binder);
+		}
+		return binder;
+	}
+
+	/**
+	 * Bind the properties of the resolver onto a new instance of the target class.
+	 * @param resolver the resolver, its prefix selects the properties to bind
+	 * @return the bound instance
+	 */
+	public T bind(RelaxedPropertyResolver resolver) {
+		return bind(resolver, BeanUtils.instantiateClass(this.type));
+	}
+
+	/**
+	 * Bind the properties of the resolver onto an existing instance.
+	 * @param resolver the resolver, its prefix selects the properties to bind
+	 * @param target the instance to bind onto
+	 * @return the given instance
+	 * @throws IllegalStateException if a value cannot be converted or set
+	 */
+	public T bind(RelaxedPropertyResolver resolver, T target) {
+		Assert.notNull(resolver, "Resolver must not be null");
+		Assert.notNull(target, "Target must not be null");
+		PropertyResolver source = resolver.getResolver();
+		ConversionService conversionService = (source instanceof ConfigurablePropertyResolver
+				? ((ConfigurablePropertyResolver) source).getConversionService()
+				: DefaultConversionService.getSharedInstance());
+		LookupNames[] lookupNames = lookupNames(resolver);
+		for (int i = 0; i < this.bindings.length; i++) {
+			Binding binding = this.bindings[i];
+			if (!conversionService.canConvert(STRING_TYPE, binding.type)) {
+				continue;
+			}
+			String name = resolver.findName(binding.name, lookupNames[i].canonicalName,
+					lookupNames[i].candidates);
+			if (name == null) {
+				continue;
+			}
+			try {
+				Object value = conversionService.convert(source.getProperty(name),
+						STRING_TYPE, binding.type);
+				if (value != null || !binding.primitive) {
+					binding.setter.invokeExact(target, value);
+				}
+			}
+			catch (Throwable ex) {
+				throw new IllegalStateException(String.format(
+						"Could not bind property [%s] to %s", name, this.type.getName()),
+						ex);
+			}
+		}
+		return target;
+	}
+
+	private LookupNames[] lookupNames(RelaxedPropertyResolver resolver) {
+		LookupNames[] names = this.lookupNames.get(resolver.getPrefix());
+		if (names == null) {
+			List<String> prefixes = new ArrayList<String>();
+			for (String prefix : RelaxedNames.lazy(resolver.getPrefix())) {
+				prefixes.add(prefix);
+			}
+			names = new LookupNames[this.bindings.length];
+			for (int i = 0; i < names.length; i++) {
+				names[i] = new LookupNames(resolver.getCanonicalPrefix(), prefixes,
+						this.bindings[i].name);
+			}
+			this.lookupNames.put(resolver.getPrefix(), names);
+		}
+		return names;
+	}
+
+	/**
+	 * Compiled binding of a single property.
+	 */
+	private static final class Binding {
+
+		private static final MethodType SETTER_TYPE = MethodType.methodType(void.class,
+				Object.class, Object.class);
+
+		private final String name;
+
+		private final MethodHandle setter;
+
+		private final TypeDescriptor type;
+
+		private final boolean primitive;
+
+		Binding(String name, Method writeMethod) {
+			ReflectionUtils.makeAccessible(writeMethod);
+			try {
+				this.setter = MethodHandles.lookup().unreflect(writeMethod)
+						.asType(SETTER_TYPE);
+			}
+			catch (IllegalAccessException ex) {
+				throw new IllegalStateException("Could not access " + writeMethod, ex);
+			}
+			this.name = name;
+			Class<?> parameterType = writeMethod.getParameterTypes()[0];
+			// Primitives are converted to their wrapper so that null can be skipped
+			this.type = (parameterType.isPrimitive()
+					? TypeDescriptor.valueOf(ClassUtils.resolvePrimitiveIfNecessary(parameterType))
+					: new TypeDescriptor(MethodParameter.forExecutable(writeMethod, 0)));
+			this.primitive = parameterType.isPrimitive();
+		}
+
+	}
+
+	/**
+	 * Names a single property is looked up under for one resolver prefix: the canonical
+	 * name used with an index and the relaxed variations, most likely first.
+	 */
+	private static final class LookupNames {
+
+		private final String canonicalName;
+
+		private final String[] candidates;
+
+		LookupNames(String canonicalPrefix, List<String> prefixes, String key) {
+			Set<String> candidates = new LinkedHashSet<String>();
+			for (String prefix : prefixes) {
+				for (String relaxedKey : RelaxedNames.lazy(key)) {
+					candidates.add(prefix + relaxedKey);
+				}
+			}
+			this.canonicalName = canonicalPrefix + RelaxedPropertyIndex.canonicalName(key);
+			this.candidates = candidates.toArray(new String[0]);
+		}
+
+	}
+
+}
@@ -0,0 +1,243 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.util.Assert;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for relaxed property lookups made by {@link RelaxedPropertyResolver},
+ * {@link AbstractPropertySourceUtils#getSubProperties(org.springframework.core.env.PropertySources, String, String)}
+ * and {@link AbstractPropertySourceUtils#getIndexedSubProperties}: lookups, hits, misses,
+ * the number of names probed and the time spent. Probes are also counted per requested key so that
+ * the most expensive call sites can be {@link #report(int) reported}. Once
+ * {@link #KEY_LIMIT} keys are tracked, the probes of any other key are added to a single
+ * untracked count that the report lists next to the top keys.
+ * <p>
+ * Collection is disabled by default and costs a single volatile read per lookup until
+ * {@link #setEnabled(boolean) enabled}. Counters use {@link LongAdder} to stay cheap
+ * under contention. The statistics can be exposed through JMX with
+ * {@link #registerMBean()}.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class RelaxedLookupStats implements RelaxedLookupStatsMBean {
+
+	/**
+	 * Name under which {@link #registerMBean()} registers the statistics.
+	 */
+	public static final String OBJECT_NAME = "tech.mhuang.ext.spring:type=RelaxedLookupStats";
+
+	/**
+	 * Maximum number of distinct keys whose probes are counted individually.
+	 */
+	static final int KEY_LIMIT = 1024;
+
+	private static final RelaxedLookupStats INSTANCE = new RelaxedLookupStats();
+
+	private volatile boolean enabled;
+
+	private final LongAdder lookups = new LongAdder();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder probes = new LongAdder();
+
+	private final LongAdder nanos = new LongAdder();
+
+	private final LongAdder untrackedProbes = new LongAdder();
+
+	private final ConcurrentHashMap<String, LongAdder> keyProbes = new ConcurrentHashMap<String, LongAdder>(
+			64);
+
+	private RelaxedLookupStats() {
+	}
+
+	/**
+	 * Return the shared statistics.
+	 * @return the statistics
+	 */
+	public static RelaxedLookupStats getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Return the shared statistics if collection is enabled.
+	 * @return the statistics or {@code null}
+	 */
+	static RelaxedLookupStats active() {
+		return (INSTANCE.enabled ? INSTANCE : null);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Record one lookup.
+	 * @param key the requested key
+	 * @param hit if the lookup found a property
+	 * @param probes the number of names probed
+	 * @param nanos the time spent
+	 */
+	void record(String key, boolean hit, int probes, long nanos) {
+		this.lookups.increment();
+		if (hit) {
+			this.hits.increment();
+		}
+		this.probes.add(probes);
+		this.nanos.add(nanos);
+		LongAdder counter = this.keyProbes.get(key);
+		if (counter == null && this.keyProbes.size() < KEY_LIMIT) {
+			counter = new LongAdder();
+			LongAdder existing = this.keyProbes.putIfAbsent(key, counter);
+			counter = (existing != null ? existing : counter);
+		}
+		if (counter != null) {
+			counter.add(probes);
+		}
+		else {
+			this.untrackedProbes.add(probes);
+		}
+	}
+
+	@Override
+	public long getLookupCount() {
+		return this.lookups.sum();
+	}
+
+	@Override
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	@Override
+	public long getMissCount() {
+		return getLookupCount() - getHitCount();
+	}
+
+	@Override
+	public long getProbeCount() {
+		return this.probes.sum();
+	}
+
+	@Override
+	public long getTotalNanos() {
+		return this.nanos.sum();
+	}
+
+	@Override
+	public long getUntrackedProbeCount() {
+		return this.untrackedProbes.sum();
+	}
+
+	/**
+	 * Return the keys with the most probes, most expensive first.
+	 * @param limit the maximum number of keys
+	 * @return probe counts keyed by requested key
+	 */
+	public Map<String, Long> getTopKeysByProbes(int limit) {
+		Assert.isTrue(limit >= 0, "Limit must not be negative");
+		List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>(
+				this.keyProbes.size());
+		for (Map.Entry<String, LongAdder> entry : this.keyProbes.entrySet()) {
+			entries.add(new AbstractMap.SimpleImmutableEntry<String, Long>(
+					entry.getKey(), entry.getValue().sum()));
+		}
+		Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+
+			@Override
+			public int compare(Map.Entry<String, Long> left, Map.Entry<String, Long> right) {
+				return right.getValue().compareTo(left.getValue());
+			}
+
+		});
+		Map<String, Long> top = new LinkedHashMap<String, Long>();
+		for (Map.Entry<String, Long> entry : entries.subList(0,
+				Math.min(limit, entries.size()))) {
+			top.put(entry.getKey(), entry.getValue());
+		}
+		return top;
+	}
+
+	/**
+	 * Return a text report of the counters and of the keys with the most probes.
+	 * @param limit the maximum number of keys to list
+	 * @return the report
+	 */
+	@Override
+	public String report(int limit) {
+		long lookups = getLookupCount();
+		StringBuilder report = new StringBuilder(256);
+		report.append("lookups=").append(lookups).append(", hits=")
+				.append(getHitCount()).append(", misses=").append(getMissCount())
+				.append(", probes=").append(getProbeCount()).append(", time=")
+				.append(TimeUnit.NANOSECONDS.toMillis(getTotalNanos())).append("ms");
+		if (lookups > 0) {
+			report.append(", probes/lookup=")
+					.append(String.format("%.2f", (double) getProbeCount() / lookups));
+		}
+		for (Map.Entry<String, Long> entry : getTopKeysByProbes(limit).entrySet()) {
+			report.append(System.lineSeparator()).append("  ").append(entry.getKey())
+					.append(" probes=").append(entry.getValue());
+		}
+		long untracked = getUntrackedProbeCount();
+		if (untracked > 0) {
+			report.append(System.lineSeparator()).append("  (keys beyond ")
+					.append(KEY_LIMIT).append(") probes=").append(untracked);
+		}
+		return report.toString();
+	}
+
+	@Override
+	public void reset() {
+		this.lookups.reset();
+		this.hits.reset();
+		this.probes.reset();
+		this.nanos.reset();
+		this.untrackedProbes.reset();
+		this.keyProbes.clear();
+	}
+
+	/**
+	 * Register the statistics with the platform MBean server under {@link #OBJECT_NAME},
+	 * doing nothing if already registered.
+	 * @throws IllegalStateException if registration fails
+	 */
+	public void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+		}
+		catch (InstanceAlreadyExistsException ex) {
+			// registered concurrently
+		}
+		catch (JMException ex) {
+			throw new IllegalStateException("Could not register " + OBJECT_NAME, ex);
+		}
+	}
+
+}
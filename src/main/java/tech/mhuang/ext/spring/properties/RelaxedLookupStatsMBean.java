@@ -0,0 +1,31 @@
+package tech.mhuang.ext.spring.properties;
+
+/**
+ * JMX view of {@link RelaxedLookupStats}.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public interface RelaxedLookupStatsMBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	long getLookupCount();
+
+	long getHitCount();
+
+	long getMissCount();
+
+	long getProbeCount();
+
+	long getTotalNanos();
+
+	long getUntrackedProbeCount();
+
+	String report(int limit);
+
+	void reset();
+
+}
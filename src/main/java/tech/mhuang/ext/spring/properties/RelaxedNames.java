@@ -18,9 +18,13 @@ package tech.mhuang.ext.spring.properties;
 
 import org.springframework.util.StringUtils;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -38,9 +42,20 @@ public final class RelaxedNames implements Iterable<String> {
 	private static final Pattern SEPARATED_TO_CAMEL_CASE_PATTERN = Pattern
 			.compile("[_\\-.]");
 
+	/**
+	 * Maximum number of source names whose variations are kept in the shared cache.
+	 */
+	static final int CACHE_LIMIT = 1024;
+
+	/**
+	 * Computed variations keyed by source name, shared by all instances.
+	 */
+	private static final Map<String, Set<String>> CACHE = new ConcurrentHashMap<String, Set<String>>(
+			64);
+
 	private final String name;
 
-	private final Set<String> values = new LinkedHashSet<String>();
+	private final Set<String> values;
 
 	/**
 	 * Create a new {@link RelaxedNames} instance.
@@ -48,16 +63,60 @@ public final class RelaxedNames implements Iterable<String> {
 	 * using dashed notation (e.g. {@literal my-property-name}
 	 */
 	public RelaxedNames(String name) {
+		this(name, false);
+	}
+
+	private RelaxedNames(String name, boolean lazy) {
 		this.name = (name == null ? "" : name);
-		initialize(RelaxedNames.this.name, this.values);
+		this.values = (lazy ? null : variations(this.name));
+	}
+
+	/**
+	 * Return {@link RelaxedNames} that yield the same variations, most likely first: the
+	 * source name, then its dashed form, then the remaining variations which are only
+	 * computed if iteration goes that far. Names made of lower case letters and digits
+	 * only are varied without any regular expression work.
+	 * @param name the source name
+	 * @return the relaxed names
+	 */
+	public static RelaxedNames lazy(String name) {
+		return new RelaxedNames(name, true);
 	}
 
 	@Override
 	public Iterator<String> iterator() {
-		return this.values.iterator();
+		return (this.values != null ? this.values.iterator()
+				: new LikelyFirstIterator(this.name));
 	}
 
-	private void initialize(String name, Set<String> values) {
+	/**
+	 * Return the variations of the given name, computing them at most once while the
+	 * name stays cached. When the cache is full an arbitrary entry is evicted.
+	 */
+	private static Set<String> variations(String name) {
+		Set<String> values = CACHE.get(name);
+		if (values == null) {
+			Set<String> computed = new LinkedHashSet<String>();
+			initialize(name, computed);
+			values = Collections.unmodifiableSet(computed);
+			if (CACHE.size() >= CACHE_LIMIT) {
+				evictOne();
+			}
+			Set<String> existing = CACHE.putIfAbsent(name, values);
+			values = (existing == null ? values : existing);
+		}
+		return values;
+	}
+
+	private static void evictOne() {
+		Iterator<String> names = CACHE.keySet().iterator();
+		if (names.hasNext()) {
+			names.next();
+			names.remove();
+		}
+	}
+
+	private static void initialize(String name, Set<String> values) {
 		if (values.contains(name)) {
 			return;
 		}
@@ -72,6 +131,121 @@ public final class RelaxedNames implements Iterable<String> {
 		}
 	}
 
+	/**
+	 * Return if the variations of the given name are only the name itself and its upper
+	 * case form, which holds for lower case letters and digits where no digit is
+	 * directly followed by a letter.
+	 */
+	private static boolean isSimple(String name) {
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			boolean digit = (c >= '0' && c <= '9');
+			if (!digit && (c < 'a' || c > 'z')) {
+				return false;
+			}
+			if (digit && i + 1 < name.length() && !Character.isDigit(name.charAt(i + 1))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Apply {@link Manipulation#CAMELCASE_TO_HYPHEN} without a regular expression.
+	 */
+	private static String camelCaseToHyphen(String name) {
+		StringBuilder builder = null;
+		for (int i = 1; i < name.length(); i++) {
+			char c = name.charAt(i);
+			char previous = name.charAt(i - 1);
+			if (c >= 'A' && c <= 'Z' && previous != '-'
+					&& (previous < 'A' || previous > 'Z')) {
+				if (builder == null) {
+					builder = new StringBuilder(name.length() + 4);
+					builder.append(name, 0, i);
+				}
+				builder.append('-').append(Character.toLowerCase(c));
+			}
+			else if (builder != null) {
+				builder.append(c);
+			}
+		}
+		return (builder != null ? builder.toString() : name);
+	}
+
+	/**
+	 * Iterator yielding the source name and its dashed form before computing the
+	 * remaining variations.
+	 */
+	private static final class LikelyFirstIterator implements Iterator<String> {
+
+		private final String name;
+
+		private String dashed;
+
+		private Iterator<String> remaining;
+
+		private String next;
+
+		private int phase;
+
+		LikelyFirstIterator(String name) {
+			this.name = name;
+			this.next = name;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				this.next = advance();
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public String next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			String result = this.next;
+			this.next = null;
+			return result;
+		}
+
+		private String advance() {
+			if (this.phase == 0) {
+				this.phase = 1;
+				if (isSimple(this.name)) {
+					this.phase = 3;
+					String upper = this.name.toUpperCase();
+					return (upper.equals(this.name) ? null : upper);
+				}
+				this.dashed = camelCaseToHyphen(this.name);
+				if (!this.dashed.equals(this.name)) {
+					return this.dashed;
+				}
+			}
+			if (this.phase == 1) {
+				this.phase = 2;
+				this.remaining = variations(this.name).iterator();
+			}
+			while (this.phase == 2 && this.remaining.hasNext()) {
+				String candidate = this.remaining.next();
+				if (!candidate.equals(this.name) && !candidate.equals(this.dashed)) {
+					return candidate;
+				}
+			}
+			this.phase = 3;
+			return null;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+	}
+
 	/**
 	 * Name variations.
 	 */
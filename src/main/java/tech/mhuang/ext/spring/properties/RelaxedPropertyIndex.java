@@ -0,0 +1,275 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.PropertySources;
+import org.springframework.util.Assert;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Index of the enumerable property names of some {@link PropertySources} keyed by their
+ * canonical form, so that a relaxed lookup costs a single hash probe instead of one
+ * {@code containsProperty} call per name variation.
+ * <p>
+ * The canonical form of a name is the name in lower case with all {@code '-'},
+ * {@code '_'} and {@code '.'} separators removed, which folds every variation produced
+ * by {@link RelaxedNames} onto the same key. When several property names share a
+ * canonical form the one from the source with the highest priority wins.
+ * <p>
+ * The index follows the changes reported by a {@link PropertySourcesTracker}: each lookup
+ * checks the tracker version and, when sources were added, removed or marked as changed,
+ * only the names of those sources are read again. Names added to or removed from an
+ * existing source are not detected on lookup, which would cost a pass over all names:
+ * they must be reported with {@link PropertySourcesTracker#markChanged(String)}, as for
+ * {@link PropertyNamePrefixIndex} and {@link RelaxedValueCache}.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ * @see RelaxedPropertyResolver#indexed
+ */
+final class RelaxedPropertyIndex {
+
+	private static final Map<PropertySources, RelaxedPropertyIndex> INDEXES = new WeakHashMap<PropertySources, RelaxedPropertyIndex>(
+			4);
+
+	private final PropertySourcesTracker tracker;
+
+	private volatile State state;
+
+	private RelaxedPropertyIndex(PropertySourcesTracker tracker) {
+		this.tracker = tracker;
+	}
+
+	/**
+	 * Return the shared index over the given property sources.
+	 * @param propertySources the property sources, in priority order
+	 * @return the index
+	 */
+	static RelaxedPropertyIndex of(PropertySources propertySources) {
+		Assert.notNull(propertySources, "PropertySources must not be null");
+		synchronized (INDEXES) {
+			RelaxedPropertyIndex index = INDEXES.get(propertySources);
+			if (index == null) {
+				index = new RelaxedPropertyIndex(
+						PropertySourcesTracker.of(propertySources));
+				INDEXES.put(propertySources, index);
+			}
+			return index;
+		}
+	}
+
+	/**
+	 * Return the shared index over the given property sources, seeding it from a
+	 * {@link RelaxedPropertySnapshot snapshot} file when the index is first created, in
+	 * which case the {@link PropertyNamePrefixIndex} of the sources is seeded as well. When
+	 * the snapshot is missing or does not match the sources the index is built from the
+	 * sources and the snapshot is written. When the index already exists the snapshot is
+	 * written if it does not match, so that the next start can use it.
+	 * @param propertySources the property sources, in priority order
+	 * @param snapshotFile the snapshot file
+	 * @return the index
+	 */
+	static RelaxedPropertyIndex of(PropertySources propertySources, Path snapshotFile) {
+		Assert.notNull(propertySources, "PropertySources must not be null");
+		Assert.notNull(snapshotFile, "Snapshot file must not be null");
+		synchronized (INDEXES) {
+			RelaxedPropertyIndex index = INDEXES.get(propertySources);
+			if (index == null) {
+				index = new RelaxedPropertyIndex(
+						PropertySourcesTracker.of(propertySources));
+				index.state = index.load(propertySources, snapshotFile);
+				INDEXES.put(propertySources, index);
+			}
+			else {
+				index.save(snapshotFile);
+			}
+			return index;
+		}
+	}
+
+	private State load(PropertySources propertySources, Path snapshotFile) {
+		PropertySourcesTracker.Snapshot snapshot = this.tracker.current();
+		String[][] names = RelaxedPropertySnapshot.propertyNames(snapshot);
+		long fingerprint = RelaxedPropertySnapshot.fingerprint(snapshot, names);
+		RelaxedPropertySnapshot loaded = RelaxedPropertySnapshot.read(snapshotFile,
+				fingerprint, names);
+		if (loaded == null) {
+			RelaxedPropertySnapshot.write(snapshotFile, fingerprint, names);
+			return new State(snapshot, (State) null);
+		}
+		PropertyNamePrefixIndex.seed(propertySources, snapshot.getVersion(), loaded);
+		return new State(snapshot, loaded);
+	}
+
+	private void save(Path snapshotFile) {
+		PropertySourcesTracker.Snapshot snapshot = this.tracker.current();
+		String[][] names = RelaxedPropertySnapshot.propertyNames(snapshot);
+		long fingerprint = RelaxedPropertySnapshot.fingerprint(snapshot, names);
+		if (RelaxedPropertySnapshot.read(snapshotFile, fingerprint, names) == null) {
+			RelaxedPropertySnapshot.write(snapshotFile, fingerprint, names);
+		}
+	}
+
+	/**
+	 * Return the actual property name matching the given canonical prefix and key.
+	 * @param canonicalPrefix the prefix, already in canonical form
+	 * @param key the key, in any relaxed form
+	 * @return the actual property name or {@code null}
+	 */
+	String find(String canonicalPrefix, String key) {
+		return findCanonical(canonicalPrefix + canonicalName(key));
+	}
+
+	/**
+	 * Return the actual property name with the given canonical name.
+	 * @param canonicalName the prefixed name, already in canonical form
+	 * @return the actual property name or {@code null}
+	 */
+	String findCanonical(String canonicalName) {
+		State state = state();
+		return (state.loaded != null ? state.loaded.find(canonicalName)
+				: state.names.get(canonicalName));
+	}
+
+	/**
+	 * Return if every property source was enumerable, in which case a miss in this index
+	 * is authoritative as long as changes inside existing sources are reported with
+	 * {@link PropertySourcesTracker#markChanged(String)}.
+	 * @return if the index covers every property source
+	 */
+	boolean isComplete() {
+		return state().complete;
+	}
+
+	/**
+	 * Return the state for the current version of the property sources, rebuilding the
+	 * part derived from any source that has changed since the last lookup.
+	 */
+	private State state() {
+		State state = this.state;
+		PropertySourcesTracker.Snapshot snapshot = this.tracker.current();
+		if (state == null || state.version != snapshot.getVersion()) {
+			synchronized (this) {
+				state = this.state;
+				snapshot = this.tracker.current();
+				if (state == null || state.version != snapshot.getVersion()) {
+					state = new State(snapshot, state);
+					this.state = state;
+				}
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Index at one version of the property sources, either built from the sources or
+	 * read in place from a snapshot. A state read from a snapshot has no segments, so the
+	 * first change to the sources rebuilds the index from all sources.
+	 */
+	private static final class State {
+
+		private final long version;
+
+		private final Map<Long, Segment> segments;
+
+		private final Map<String, String> names;
+
+		private final RelaxedPropertySnapshot loaded;
+
+		private final boolean complete;
+
+		State(PropertySourcesTracker.Snapshot snapshot, RelaxedPropertySnapshot loaded) {
+			this.version = snapshot.getVersion();
+			this.segments = Collections.emptyMap();
+			this.names = null;
+			this.loaded = loaded;
+			this.complete = loaded.isComplete();
+		}
+
+		State(PropertySourcesTracker.Snapshot snapshot, State previous) {
+			Map<Long, Segment> segments = new HashMap<Long, Segment>(snapshot.size() * 2);
+			Map<String, String> names = new HashMap<String, String>(
+					previous == null || previous.names == null ? 256
+							: previous.names.size() * 2);
+			boolean complete = true;
+			for (int i = 0; i < snapshot.size(); i++) {
+				Long stamp = snapshot.getStamp(i);
+				Segment segment = (previous == null ? null : previous.segments.get(stamp));
+				if (segment == null) {
+					segment = new Segment(snapshot.getSource(i));
+				}
+				segments.put(stamp, segment);
+				if (segment.names == null) {
+					complete = false;
+					continue;
+				}
+				for (Map.Entry<String, String> entry : segment.names.entrySet()) {
+					if (!names.containsKey(entry.getKey())) {
+						names.put(entry.getKey(), entry.getValue());
+					}
+				}
+			}
+			this.version = snapshot.getVersion();
+			this.segments = segments;
+			this.names = names;
+			this.loaded = null;
+			this.complete = complete;
+		}
+
+	}
+
+	/**
+	 * Canonical names of a single property source, {@code null} names when the source is
+	 * not enumerable.
+	 */
+	private static final class Segment {
+
+		private final Map<String, String> names;
+
+		Segment(PropertySource<?> source) {
+			if (source instanceof EnumerablePropertySource) {
+				String[] propertyNames = ((EnumerablePropertySource<?>) source)
+						.getPropertyNames();
+				Map<String, String> names = new LinkedHashMap<String, String>(
+						propertyNames.length * 2);
+				for (String name : propertyNames) {
+					String canonical = canonicalName(name);
+					if (!names.containsKey(canonical)) {
+						names.put(canonical, name);
+					}
+				}
+				this.names = names;
+			}
+			else {
+				this.names = null;
+			}
+		}
+
+	}
+
+	/**
+	 * Return the canonical form of the given name.
+	 * @param name the name
+	 * @return the name in lower case without separators
+	 */
+	static String canonicalName(String name) {
+		if (name == null) {
+			return "";
+		}
+		StringBuilder builder = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c != '-' && c != '_' && c != '.') {
+				builder.append(Character.toLowerCase(c));
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -23,6 +23,7 @@ import org.springframework.core.env.PropertyResolver;
 import org.springframework.core.env.PropertySourcesPropertyResolver;
 import org.springframework.util.Assert;
 
+import java.nio.file.Path;
 import java.util.Map;
 
 /**
@@ -37,14 +38,28 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 
 	private final String prefix;
 
+	private final RelaxedPropertyIndex index;
+
+	private final String canonicalPrefix;
+
+	private final RelaxedValueCache valueCache;
+
 	public RelaxedPropertyResolver(PropertyResolver resolver) {
 		this(resolver, null);
 	}
 
 	public RelaxedPropertyResolver(PropertyResolver resolver, String prefix) {
+		this(resolver, prefix, null, null);
+	}
+
+	private RelaxedPropertyResolver(PropertyResolver resolver, String prefix,
+			RelaxedPropertyIndex index, RelaxedValueCache valueCache) {
 		Assert.notNull(resolver, "PropertyResolver must not be null");
 		this.resolver = resolver;
 		this.prefix = (prefix == null ? "" : prefix);
+		this.index = index;
+		this.canonicalPrefix = RelaxedPropertyIndex.canonicalName(this.prefix);
+		this.valueCache = valueCache;
 	}
 
 	@Override
@@ -77,49 +92,191 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 
 	@Override
 	public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
-		RelaxedNames prefixes = new RelaxedNames(this.prefix);
-		RelaxedNames keys = new RelaxedNames(key);
-		for (String prefix : prefixes) {
-			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
-					return this.resolver.getProperty(prefix + relaxedKey, targetType);
-				}
-			}
+		if (this.valueCache != null) {
+			T value = this.valueCache.get(this, key, targetType);
+			return (value != null ? value : defaultValue);
 		}
-		return defaultValue;
+		String name = findName(key);
+		return (name != null ? this.resolver.getProperty(name, targetType)
+				: defaultValue);
 	}
 
 	@Override
 	public boolean containsProperty(String key) {
-		RelaxedNames prefixes = new RelaxedNames(this.prefix);
-		RelaxedNames keys = new RelaxedNames(key);
+		return findName(key) != null;
+	}
+
+	/**
+	 * Return the actual name of the first property matching a relaxed variation of the
+	 * prefix followed by a relaxed variation of the given key. Variations are tried most
+	 * likely first and only computed as far as needed, see {@link RelaxedNames#lazy}.
+	 * @param key the property key
+	 * @return the actual property name or {@code null} if no variation matched
+	 */
+	String findName(String key) {
+		RelaxedLookupStats stats = RelaxedLookupStats.active();
+		if (stats == null) {
+			return findName(key, null);
+		}
+		long start = System.nanoTime();
+		int[] probes = new int[1];
+		String name = findName(key, probes);
+		stats.record(this.prefix + key, name != null, probes[0],
+				System.nanoTime() - start);
+		return name;
+	}
+
+	private String findName(String key, int[] probes) {
+		if (this.index != null) {
+			count(probes);
+			String name = this.index.find(this.canonicalPrefix, key);
+			if (name != null || this.index.isComplete()) {
+				return name;
+			}
+		}
+		RelaxedNames prefixes = RelaxedNames.lazy(this.prefix);
+		RelaxedNames keys = RelaxedNames.lazy(key);
 		for (String prefix : prefixes) {
 			for (String relaxedKey : keys) {
-				if (this.resolver.containsProperty(prefix + relaxedKey)) {
-					return true;
+				String name = prefix + relaxedKey;
+				count(probes);
+				if (this.resolver.containsProperty(name)) {
+					return name;
 				}
 			}
 		}
-		return false;
+		return null;
+	}
+
+	/**
+	 * Variant of {@link #findName(String)} for callers that computed the lookup names
+	 * up front, see {@link RelaxedBinder}.
+	 * @param key the property key, used for statistics only
+	 * @param canonicalName the prefixed key in canonical form, used with the index
+	 * @param candidates the relaxed variations of the prefixed key, most likely first
+	 * @return the actual property name or {@code null} if no variation matched
+	 */
+	String findName(String key, String canonicalName, String[] candidates) {
+		RelaxedLookupStats stats = RelaxedLookupStats.active();
+		if (stats == null) {
+			return findName(canonicalName, candidates, null);
+		}
+		long start = System.nanoTime();
+		int[] probes = new int[1];
+		String name = findName(canonicalName, candidates, probes);
+		stats.record(this.prefix + key, name != null, probes[0],
+				System.nanoTime() - start);
+		return name;
+	}
+
+	private String findName(String canonicalName, String[] candidates, int[] probes) {
+		if (this.index != null) {
+			count(probes);
+			String name = this.index.findCanonical(canonicalName);
+			if (name != null || this.index.isComplete()) {
+				return name;
+			}
+		}
+		for (String name : candidates) {
+			count(probes);
+			if (this.resolver.containsProperty(name)) {
+				return name;
+			}
+		}
+		return null;
+	}
+
+	private static void count(int[] probes) {
+		if (probes != null) {
+			probes[0]++;
+		}
+	}
+
+	/**
+	 * Return the prefix of this resolver.
+	 * @return the prefix, empty if none
+	 */
+	String getPrefix() {
+		return this.prefix;
+	}
+
+	/**
+	 * Return the canonical form of the prefix of this resolver.
+	 * @return the canonical prefix
+	 */
+	String getCanonicalPrefix() {
+		return this.canonicalPrefix;
+	}
+
+	/**
+	 * Return the underlying property resolver.
+	 * @return the property resolver
+	 */
+	PropertyResolver getResolver() {
+		return this.resolver;
 	}
 
+	/**
+	 * Resolve {@code ${key:default}} placeholders in the given text, looking each key up
+	 * with the relaxed rules of this resolver. Placeholders that cannot be resolved and
+	 * have no default value are left unchanged. Each text is parsed only once.
+	 * @param text the text to resolve
+	 * @return the resolved text
+	 */
 	@Override
 	public String resolvePlaceholders(String text) {
-		throw new UnsupportedOperationException(
-				"Unable to resolve placeholders with relaxed properties");
+		Assert.notNull(text, "Text must not be null");
+		return PlaceholderTemplate.parse(text).resolve(this, false);
 	}
 
+	/**
+	 * Resolve {@code ${key:default}} placeholders in the given text, looking each key up
+	 * with the relaxed rules of this resolver. Each text is parsed only once.
+	 * @param text the text to resolve
+	 * @return the resolved text
+	 * @throws IllegalArgumentException if a placeholder cannot be resolved and has no
+	 * default value
+	 */
 	@Override
 	public String resolveRequiredPlaceholders(String text)
 			throws IllegalArgumentException {
-		throw new UnsupportedOperationException(
-				"Unable to resolve placeholders with relaxed properties");
+		Assert.notNull(text, "Text must not be null");
+		return PlaceholderTemplate.parse(text).resolve(this, true);
+	}
+
+	/**
+	 * Bind the properties below the prefix of this resolver onto a new instance of the
+	 * given class. The binding plan is compiled once per class and reused.
+	 * @param type the target class
+	 * @param <T> the target type
+	 * @return the bound instance
+	 * @see RelaxedBinder
+	 */
+	public <T> T bind(Class<T> type) {
+		return RelaxedBinder.of(type).bind(this);
+	}
+
+	/**
+	 * Bind the properties below the prefix of this resolver onto an existing instance,
+	 * for example to refresh it after the property sources changed. Properties that are
+	 * not found keep their current value.
+	 * @param target the instance to bind onto
+	 * @param <T> the target type
+	 * @return the given instance
+	 * @see RelaxedBinder
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T bind(T target) {
+		Assert.notNull(target, "Target must not be null");
+		return RelaxedBinder.of((Class<T>) target.getClass()).bind(this, target);
 	}
 
 	/**
 	 * Return a Map of all values from all underlying properties that start with the
 	 * specified key. NOTE: this method can only be used if the underlying resolver is a
 	 * {@link ConfigurableEnvironment}.
+	 * {@link #indexed(ConfigurableEnvironment, String) Indexed} resolvers use
+	 * {@link AbstractPropertySourceUtils#getIndexedSubProperties}.
 	 * @param keyPrefix the key prefix used to filter results
 	 * @return a map of all sub properties starting with the specified key prefix.
 	 * @see AbstractPropertySourceUtils#getSubProperties
@@ -128,6 +285,10 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 		Assert.isInstanceOf(ConfigurableEnvironment.class, this.resolver,
 				"SubProperties not available.");
 		ConfigurableEnvironment env = (ConfigurableEnvironment) this.resolver;
+		if (this.index != null) {
+			return AbstractPropertySourceUtils.getIndexedSubProperties(
+					env.getPropertySources(), this.prefix, keyPrefix);
+		}
 		return AbstractPropertySourceUtils.getSubProperties(env.getPropertySources(), this.prefix,
 				keyPrefix);
 	}
@@ -153,4 +314,70 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 		return new RelaxedPropertyResolver(resolver, prefix);
 	}
 
+	/**
+	 * Return a property resolver for the environment that looks keys up in an index of
+	 * canonical property names instead of probing every relaxed variation. Names that
+	 * differ only by case or by {@code '-'}, {@code '_'} and {@code '.'} separators are
+	 * treated as equal and the property source with the highest priority wins. Sources
+	 * that are not enumerable are only consulted when the index has no match. The index
+	 * is shared per environment and follows property sources added or removed at runtime,
+	 * see {@link PropertySourcesTracker}. Names added to or removed from an existing
+	 * source must be reported with {@link PropertySourcesTracker#markChanged(String)}.
+	 * @param environment the source environment
+	 * @param prefix the prefix
+	 * @return an indexed property resolver for the environment
+	 */
+	public static RelaxedPropertyResolver indexed(ConfigurableEnvironment environment,
+			String prefix) {
+		Assert.notNull(environment, "Environment must not be null");
+		return new RelaxedPropertyResolver(environment, prefix,
+				RelaxedPropertyIndex.of(environment.getPropertySources()), null);
+	}
+
+	/**
+	 * Return an {@link #indexed(ConfigurableEnvironment, String) indexed} property
+	 * resolver whose index is seeded from a snapshot file written at a previous start,
+	 * see {@link RelaxedPropertySnapshot}. The snapshot also seeds the index used by
+	 * {@link #getSubProperties(String)}. It is only used when a fingerprint of the source
+	 * and property names matches the current environment, otherwise the index is built
+	 * from the environment and the snapshot rewritten. Property values are always read
+	 * from the environment.
+	 * @param environment the source environment
+	 * @param prefix the prefix
+	 * @param snapshotFile the snapshot file
+	 * @return an indexed property resolver for the environment
+	 */
+	public static RelaxedPropertyResolver indexed(ConfigurableEnvironment environment,
+			String prefix, Path snapshotFile) {
+		Assert.notNull(environment, "Environment must not be null");
+		return new RelaxedPropertyResolver(environment, prefix, RelaxedPropertyIndex
+				.of(environment.getPropertySources(), snapshotFile), null);
+	}
+
+	/**
+	 * Return a resolver with the same prefix that caches resolved and converted values by
+	 * key and target type, including properties that were not found. Cached values are
+	 * dropped whenever the property sources change, see {@link PropertySourcesTracker}.
+	 * NOTE: this method can only be used if the underlying resolver is a
+	 * {@link ConfigurableEnvironment}.
+	 * @return a caching property resolver
+	 * @see #getValueCache()
+	 */
+	public RelaxedPropertyResolver cached() {
+		Assert.isInstanceOf(ConfigurableEnvironment.class, this.resolver,
+				"Value cache not available.");
+		ConfigurableEnvironment env = (ConfigurableEnvironment) this.resolver;
+		return new RelaxedPropertyResolver(this.resolver, this.prefix, this.index,
+				new RelaxedValueCache(PropertySourcesTracker.of(env.getPropertySources())));
+	}
+
+	/**
+	 * Return the value cache of this resolver.
+	 * @return the value cache or {@code null} if values are not cached
+	 * @see #cached()
+	 */
+	public RelaxedValueCache getValueCache() {
+		return this.valueCache;
+	}
+
 }
@@ -0,0 +1,399 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.PropertySource;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot of the property names of some property sources, written at one
+ * start so that the next start can skip normalizing and sorting every property name.
+ * <p>
+ * The snapshot holds the table of {@link RelaxedPropertyIndex} (every canonical name with
+ * the position of the property name that wins it) sorted by canonical name, and the
+ * sorted order of the names of each source used by {@link PropertyNamePrefixIndex}. The
+ * file is copied into a heap buffer in one read and closed, so that it can be replaced
+ * while the index is in use on every platform. Both parts are read in place from that
+ * buffer: a canonical name is found with a binary search and property names are taken
+ * from the live sources, so loading decodes no strings. Values are not part of the
+ * snapshot and are always read from the live sources.
+ * <p>
+ * The snapshot is only used when the fingerprint of the current sources matches, a
+ * 64-bit FNV-1a hash of the source names and of the property names of each enumerable
+ * source computed in a single pass over their characters, and when every offset, length
+ * and position in the file is consistent with its size and with the current sources. A
+ * truncated or corrupt file is ignored and the index is built from the sources.
+ * <p>
+ * Layout: magic, format version, fingerprint, source count, the name count of each
+ * source ({@code -1} for a source that is not enumerable), entry count, the entries as
+ * (char offset, char length, source, name position), the sorted order of each enumerable
+ * source, then the canonical names as UTF-16 chars.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+final class RelaxedPropertySnapshot {
+
+	private static final Logger logger = LoggerFactory.getLogger(RelaxedPropertySnapshot.class);
+
+	private static final int MAGIC = 0x52505331;
+
+	private static final int FORMAT_VERSION = 2;
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+	private static final long FNV_PRIME = 0x100000001b3L;
+
+	private static final int ENTRY_SIZE = 16;
+
+	private final ByteBuffer buffer;
+
+	private final String[][] names;
+
+	private final int entries;
+
+	private final int entriesStart;
+
+	private final int[] orderStarts;
+
+	private final boolean complete;
+
+	private RelaxedPropertySnapshot(ByteBuffer buffer, String[][] names, int entries,
+			int entriesStart, int[] orderStarts, boolean complete) {
+		this.buffer = buffer;
+		this.names = names;
+		this.entries = entries;
+		this.entriesStart = entriesStart;
+		this.orderStarts = orderStarts;
+		this.complete = complete;
+	}
+
+	/**
+	 * Return the property names of each source in priority order.
+	 * @param snapshot the property sources
+	 * @return the names, {@code null} for sources that are not enumerable
+	 */
+	static String[][] propertyNames(PropertySourcesTracker.Snapshot snapshot) {
+		String[][] names = new String[snapshot.size()][];
+		for (int i = 0; i < names.length; i++) {
+			PropertySource<?> source = snapshot.getSource(i);
+			if (source instanceof EnumerablePropertySource) {
+				names[i] = ((EnumerablePropertySource<?>) source).getPropertyNames();
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Return the fingerprint of the given sources and their property names.
+	 * @param snapshot the property sources
+	 * @param names the property names of each source
+	 * @return the fingerprint
+	 */
+	static long fingerprint(PropertySourcesTracker.Snapshot snapshot, String[][] names) {
+		long hash = FNV_OFFSET;
+		for (int i = 0; i < names.length; i++) {
+			hash = update(hash, snapshot.getSource(i).getName());
+			hash = update(hash, (names[i] == null ? -1 : names[i].length));
+			if (names[i] != null) {
+				for (String name : names[i]) {
+					hash = update(hash, name);
+				}
+			}
+		}
+		return hash;
+	}
+
+	private static long update(long hash, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+		}
+		return update(hash, value.length());
+	}
+
+	private static long update(long hash, int value) {
+		for (int shift = 0; shift < 32; shift += 8) {
+			hash = (hash ^ ((value >>> shift) & 0xff)) * FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Read the snapshot in the given file.
+	 * @param file the snapshot file
+	 * @param fingerprint the fingerprint of the current sources
+	 * @param names the property names of each current source
+	 * @return the snapshot or {@code null} if the file is missing, unreadable, corrupt or
+	 * does not match
+	 */
+	static RelaxedPropertySnapshot read(Path file, long fingerprint, String[][] names) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			int header = 4 + 4 + 8 + 4 + names.length * 4 + 4;
+			if (size < header || size > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) size);
+			while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+				// read fully
+			}
+			if (buffer.hasRemaining()) {
+				return null;
+			}
+			buffer.flip();
+			if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+					|| buffer.getLong() != fingerprint || buffer.getInt() != names.length) {
+				return null;
+			}
+			boolean complete = true;
+			long orderSize = 0;
+			for (String[] sourceNames : names) {
+				if (buffer.getInt() != (sourceNames == null ? -1 : sourceNames.length)) {
+					return null;
+				}
+				complete &= (sourceNames != null);
+				orderSize += (sourceNames == null ? 0 : sourceNames.length * 4L);
+			}
+			int entries = buffer.getInt();
+			int entriesStart = buffer.position();
+			if (entries < 0 || entriesStart + (long) entries * ENTRY_SIZE
+					+ orderSize > size) {
+				return null;
+			}
+			int[] orderStarts = new int[names.length];
+			int position = entriesStart + entries * ENTRY_SIZE;
+			for (int i = 0; i < names.length; i++) {
+				orderStarts[i] = position;
+				position += (names[i] == null ? 0 : names[i].length * 4);
+			}
+			if (!isValid(buffer, names, entries, entriesStart, orderStarts, position)) {
+				return null;
+			}
+			return new RelaxedPropertySnapshot(buffer, names, entries, entriesStart,
+					orderStarts, complete);
+		}
+		catch (IOException | RuntimeException ex) {
+			logger.warn("属性快照读取失败、使用实时属性:{}", file, ex);
+			return null;
+		}
+	}
+
+	/**
+	 * Check that the entries point at consecutive canonical names that end the file and
+	 * at existing property names, and that the sorted orders hold valid positions.
+	 */
+	private static boolean isValid(ByteBuffer buffer, String[][] names, int entries,
+			int entriesStart, int[] orderStarts, int charsStart) {
+		long expected = charsStart;
+		for (int i = 0; i < entries; i++) {
+			int entry = entriesStart + i * ENTRY_SIZE;
+			int length = buffer.getInt(entry + 4);
+			int source = buffer.getInt(entry + 8);
+			int position = buffer.getInt(entry + 12);
+			if (buffer.getInt(entry) != expected || length < 0 || source < 0
+					|| source >= names.length || names[source] == null || position < 0
+					|| position >= names[source].length) {
+				return false;
+			}
+			expected += length * 2L;
+		}
+		if (expected != buffer.limit()) {
+			return false;
+		}
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] != null) {
+				for (int j = 0; j < names[i].length; j++) {
+					int position = buffer.getInt(orderStarts[i] + j * 4);
+					if (position < 0 || position >= names[i].length) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Return the property names of the source at the given position.
+	 * @param source the source position
+	 * @return the names or {@code null} if the source is not enumerable
+	 */
+	String[] getPropertyNames(int source) {
+		return this.names[source];
+	}
+
+	/**
+	 * Return the positions of the names of the given source in sorted order.
+	 * @param source the source position
+	 * @return the sorted positions or {@code null} if the source is not enumerable
+	 */
+	int[] getSortedOrder(int source) {
+		if (this.names[source] == null) {
+			return null;
+		}
+		int[] sorted = new int[this.names[source].length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = this.buffer.getInt(this.orderStarts[source] + i * 4);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Return if every source was enumerable.
+	 * @return if a miss is authoritative
+	 */
+	boolean isComplete() {
+		return this.complete;
+	}
+
+	/**
+	 * Return the property name that wins the given canonical name.
+	 * @param canonicalName the canonical name
+	 * @return the actual property name or {@code null}
+	 */
+	String find(String canonicalName) {
+		int low = 0;
+		int high = this.entries - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int entry = this.entriesStart + middle * ENTRY_SIZE;
+			int comparison = compare(this.buffer.getInt(entry),
+					this.buffer.getInt(entry + 4), canonicalName);
+			if (comparison < 0) {
+				low = middle + 1;
+			}
+			else if (comparison > 0) {
+				high = middle - 1;
+			}
+			else {
+				return this.names[this.buffer.getInt(entry + 8)][this.buffer
+						.getInt(entry + 12)];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compare the stored chars with the given name in {@link String#compareTo} order.
+	 */
+	private int compare(int offset, int length, String name) {
+		int limit = Math.min(length, name.length());
+		for (int i = 0; i < limit; i++) {
+			int difference = this.buffer.getChar(offset + i * 2) - name.charAt(i);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return length - name.length();
+	}
+
+	/**
+	 * Write a snapshot of the given sources to the given file, replacing it atomically
+	 * where supported. Failures are logged and otherwise ignored.
+	 * @param file the snapshot file
+	 * @param fingerprint the fingerprint of the sources
+	 * @param names the property names of each source, {@code null} for sources that are
+	 * not enumerable
+	 */
+	static void write(Path file, long fingerprint, String[][] names) {
+		Map<String, int[]> winners = new HashMap<String, int[]>();
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] != null) {
+				for (int j = 0; j < names[i].length; j++) {
+					String canonical = RelaxedPropertyIndex.canonicalName(names[i][j]);
+					if (!winners.containsKey(canonical)) {
+						winners.put(canonical, new int[] { i, j });
+					}
+				}
+			}
+		}
+		List<String> canonicalNames = new ArrayList<String>(winners.keySet());
+		Collections.sort(canonicalNames);
+		int orderSize = 0;
+		for (String[] sourceNames : names) {
+			orderSize += (sourceNames == null ? 0 : sourceNames.length * 4);
+		}
+		int charsStart = 4 + 4 + 8 + 4 + names.length * 4 + 4
+				+ canonicalNames.size() * ENTRY_SIZE + orderSize;
+		Path temp = null;
+		try {
+			Path directory = file.toAbsolutePath().getParent();
+			Files.createDirectories(directory);
+			temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+			try (OutputStream stream = Files.newOutputStream(temp);
+					DataOutputStream output = new DataOutputStream(
+							new BufferedOutputStream(stream))) {
+				output.writeInt(MAGIC);
+				output.writeInt(FORMAT_VERSION);
+				output.writeLong(fingerprint);
+				output.writeInt(names.length);
+				for (String[] sourceNames : names) {
+					output.writeInt(sourceNames == null ? -1 : sourceNames.length);
+				}
+				output.writeInt(canonicalNames.size());
+				int offset = charsStart;
+				for (String canonical : canonicalNames) {
+					int[] winner = winners.get(canonical);
+					output.writeInt(offset);
+					output.writeInt(canonical.length());
+					output.writeInt(winner[0]);
+					output.writeInt(winner[1]);
+					offset += canonical.length() * 2;
+				}
+				for (String[] sourceNames : names) {
+					if (sourceNames != null) {
+						for (int position : PropertyNamePrefixIndex.sortedOrder(sourceNames)) {
+							output.writeInt(position);
+						}
+					}
+				}
+				for (String canonical : canonicalNames) {
+					output.writeChars(canonical);
+				}
+			}
+			try {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException ex) {
+			logger.warn("属性快照写入失败:{}", file, ex);
+			deleteQuietly(temp);
+		}
+	}
+
+	private static void deleteQuietly(Path temp) {
+		if (temp != null) {
+			try {
+				Files.deleteIfExists(temp);
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+}
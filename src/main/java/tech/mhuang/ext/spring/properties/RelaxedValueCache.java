@@ -0,0 +1,181 @@
+package tech.mhuang.ext.spring.properties;
+
+import org.springframework.util.ObjectUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of resolved and converted values for a {@link RelaxedPropertyResolver}, keyed by
+ * property key and target type. Properties that were not found are cached as well.
+ * <p>
+ * Entries belong to a generation tied to the {@link PropertySourcesTracker#getVersion()
+ * version} of the property sources: adding, removing or
+ * {@link PropertySourcesTracker#markChanged(String) marking} a source as changed drops
+ * every cached value. Cached values are shared between callers and should not be
+ * modified.
+ *
+ * @author mhuang
+ * @since 1.3.1
+ * @see RelaxedPropertyResolver#cached()
+ */
+public final class RelaxedValueCache {
+
+	/**
+	 * Maximum number of entries kept per generation, further values are resolved
+	 * without being cached.
+	 */
+	static final int CACHE_LIMIT = 4096;
+
+	private static final Object NOT_FOUND = new Object();
+
+	private final PropertySourcesTracker tracker;
+
+	private volatile Generation generation;
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	RelaxedValueCache(PropertySourcesTracker tracker) {
+		this.tracker = tracker;
+		this.generation = new Generation(tracker.getVersion());
+	}
+
+	/**
+	 * Return the value of the given key converted to the target type, resolving and
+	 * caching it on a miss.
+	 * @param resolver the resolver used on a miss
+	 * @param key the property key
+	 * @param targetType the target type
+	 * @param <T> the target type
+	 * @return the value or {@code null} if the property was not found
+	 */
+	@SuppressWarnings("unchecked")
+	<T> T get(RelaxedPropertyResolver resolver, String key, Class<T> targetType) {
+		Generation generation = generation();
+		ValueKey valueKey = new ValueKey(key, targetType);
+		Object value = generation.values.get(valueKey);
+		if (value != null) {
+			this.hits.increment();
+		}
+		else {
+			this.misses.increment();
+			String name = resolver.findName(key);
+			value = (name != null ? resolver.getResolver().getProperty(name, targetType)
+					: null);
+			value = (value != null ? value : NOT_FOUND);
+			if (generation.values.size() < CACHE_LIMIT) {
+				generation.values.put(valueKey, value);
+			}
+		}
+		return (value != NOT_FOUND ? (T) value : null);
+	}
+
+	private Generation generation() {
+		Generation generation = this.generation;
+		long version = this.tracker.getVersion();
+		if (generation.version != version) {
+			synchronized (this) {
+				generation = this.generation;
+				if (generation.version != version) {
+					generation = new Generation(version);
+					this.generation = generation;
+				}
+			}
+		}
+		return generation;
+	}
+
+	/**
+	 * Drop every cached value.
+	 */
+	public void clear() {
+		this.generation.values.clear();
+	}
+
+	/**
+	 * Return the number of cached values, including properties cached as not found.
+	 * @return the number of cached values
+	 */
+	public int size() {
+		return generation().values.size();
+	}
+
+	/**
+	 * Return the number of lookups answered from the cache.
+	 * @return the hit count
+	 */
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	/**
+	 * Return the number of lookups that had to resolve the property.
+	 * @return the miss count
+	 */
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	/**
+	 * Return the ratio of hits to lookups, {@code 0} when nothing was looked up yet.
+	 * @return the hit rate
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long total = hits + getMissCount();
+		return (total == 0 ? 0 : (double) hits / total);
+	}
+
+	/**
+	 * Cached values for one version of the property sources.
+	 */
+	private static final class Generation {
+
+		private final long version;
+
+		private final Map<ValueKey, Object> values = new ConcurrentHashMap<ValueKey, Object>(
+				64);
+
+		Generation(long version) {
+			this.version = version;
+		}
+
+	}
+
+	/**
+	 * Cache key of a property key and target type.
+	 */
+	private static final class ValueKey {
+
+		private final String key;
+
+		private final Class<?> targetType;
+
+		ValueKey(String key, Class<?> targetType) {
+			this.key = key;
+			this.targetType = targetType;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ValueKey)) {
+				return false;
+			}
+			ValueKey other = (ValueKey) obj;
+			return this.key.equals(other.key) && this.targetType == other.targetType;
+		}
+
+		@Override
+		public int hashCode() {
+			return this.key.hashCode() * 31 + ObjectUtils.nullSafeHashCode(this.targetType);
+		}
+
+	}
+
+}
@@ -0,0 +1,295 @@
+package tech.mhuang.ext.spring.reflect;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的方法调用器.
+ * 按(目标类,方法名,参数类型)解析一次方法并生成MethodHandle缓存,
+ * 重载解析接受可赋值的参数类型及基本类型与包装类型的互相匹配、多个方法同样匹配时视为调用不明确;
+ * 调用前检查目标对象及参数、不匹配时抛出IllegalArgumentException、与Method.invoke一致
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+final class CompiledInvoker {
+
+    private static final Map<Key, CompiledInvoker> CACHE = new ConcurrentReferenceHashMap<>(256);
+
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Method method;
+
+    private final MethodHandle handle;
+
+    private final Class<?>[] parameterTypes;
+
+    /**
+     * 参数类型、基本类型替换为包装类型
+     */
+    private final Class<?>[] argumentTypes;
+
+    private final boolean isStatic;
+
+    private CompiledInvoker(Method method, MethodHandle handle) {
+        this.method = method;
+        this.handle = handle;
+        this.parameterTypes = method.getParameterTypes();
+        this.argumentTypes = new Class<?>[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentTypes[i] = ClassUtils.resolvePrimitiveIfNecessary(parameterTypes[i]);
+        }
+        this.isStatic = Modifier.isStatic(method.getModifiers());
+    }
+
+    /**
+     * 获取调用器
+     *
+     * @param targetClass 目标类
+     * @param methodName  方法名
+     * @param argTypes    参数类型、null参数对应null
+     * @return 调用器
+     * @throws NoSuchMethodException 不存在可接受这些参数的公共方法、或多个方法同样匹配时抛出
+     */
+    static CompiledInvoker of(Class<?> targetClass, String methodName, Class<?>[] argTypes) throws NoSuchMethodException {
+        Key key = new Key(targetClass, methodName, argTypes);
+        CompiledInvoker invoker = CACHE.get(key);
+        if (invoker == null) {
+            invoker = compile(resolve(targetClass, methodName, argTypes));
+            CACHE.put(key, invoker);
+        }
+        return invoker;
+    }
+
+    /**
+     * 获取参数类型
+     *
+     * @param invoke 反射调用、用于获取非null参数的类型
+     * @param params 参数
+     * @return 参数类型、null参数对应null
+     */
+    static Class<?>[] argTypes(SpringReflectInvoke invoke, Object[] params) {
+        Class<?>[] argTypes = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            argTypes[i] = (params[i] == null ? null : invoke.checkType(params[i]));
+        }
+        return argTypes;
+    }
+
+    /**
+     * 获取解析到的方法
+     *
+     * @return 方法
+     */
+    Method getMethod() {
+        return method;
+    }
+
+    /**
+     * 调用方法
+     *
+     * @param target 目标对象
+     * @param args   参数
+     * @param <T>    返回值类型
+     * @return 方法返回值、void方法返回null
+     * @throws IllegalArgumentException  目标对象或参数与方法不匹配时抛出
+     * @throws InvocationTargetException 方法抛出的异常
+     */
+    @SuppressWarnings("unchecked")
+    <T> T invoke(Object target, Object[] args) throws InvocationTargetException {
+        checkArguments(target, args);
+        Object result;
+        try {
+            result = handle.invokeExact(target, args);
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+        return (T) result;
+    }
+
+    /**
+     * 检查目标对象及参数、通过检查后MethodHandle的类型适配不会失败、调用中的异常均来自方法本身
+     */
+    private void checkArguments(Object target, Object[] args) {
+        if (!isStatic && !method.getDeclaringClass().isInstance(target)) {
+            throw new IllegalArgumentException("目标对象不是" + method.getDeclaringClass().getName() + "的实例:" + method);
+        }
+        int length = (args == null ? 0 : args.length);
+        if (length != parameterTypes.length) {
+            throw new IllegalArgumentException("参数个数不匹配、需要" + parameterTypes.length + "个、实际" + length + "个:" + method);
+        }
+        for (int i = 0; i < length; i++) {
+            Object arg = args[i];
+            if (arg == null ? parameterTypes[i].isPrimitive() : !argumentTypes[i].isInstance(arg)) {
+                throw new IllegalArgumentException("第" + (i + 1) + "个参数类型不匹配、需要" + parameterTypes[i].getName()
+                        + "、实际" + (arg == null ? "null" : arg.getClass().getName()) + ":" + method);
+            }
+        }
+    }
+
+    private static Method resolve(Class<?> targetClass, String methodName, Class<?>[] argTypes) throws NoSuchMethodException {
+        List<Method> best = new ArrayList<>(2);
+        int bestWeight = Integer.MAX_VALUE;
+        for (Method candidate : targetClass.getMethods()) {
+            if (!candidate.getName().equals(methodName) || candidate.getParameterCount() != argTypes.length) {
+                continue;
+            }
+            int weight = weight(candidate.getParameterTypes(), argTypes);
+            if (weight == Integer.MAX_VALUE || weight > bestWeight) {
+                continue;
+            }
+            if (weight < bestWeight) {
+                best.clear();
+                bestWeight = weight;
+            }
+            best.add(candidate);
+        }
+        if (best.isEmpty()) {
+            throw new NoSuchMethodException(targetClass.getName() + "." + methodName + Arrays.toString(argTypes));
+        }
+        Method method = mostSpecific(best);
+        if (method == null) {
+            throw new NoSuchMethodException("方法调用不明确、" + best + "同样匹配参数" + Arrays.toString(argTypes));
+        }
+        return ClassUtils.getInterfaceMethodIfPossible(method);
+    }
+
+    /**
+     * 同样匹配的方法中取比其他方法都更具体的方法、与Java重载解析一致、不存在时返回null
+     */
+    private static Method mostSpecific(List<Method> methods) {
+        for (Method candidate : methods) {
+            boolean specific = true;
+            for (Method other : methods) {
+                if (other != candidate && !isMoreSpecific(candidate, other)) {
+                    specific = false;
+                    break;
+                }
+            }
+            if (specific) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 方法的每个参数类型都可赋值给另一方法的对应参数类型、参数类型相同时桥接方法不比实际方法更具体
+     */
+    private static boolean isMoreSpecific(Method method, Method other) {
+        Class<?>[] paramTypes = method.getParameterTypes();
+        Class<?>[] otherTypes = other.getParameterTypes();
+        for (int i = 0; i < paramTypes.length; i++) {
+            if (!ClassUtils.isAssignable(otherTypes[i], paramTypes[i])) {
+                return false;
+            }
+        }
+        return !(method.isBridge() && !other.isBridge() && Arrays.equals(paramTypes, otherTypes));
+    }
+
+    /**
+     * 参数类型与方法参数的差异权重、越小越匹配、不匹配时返回Integer.MAX_VALUE
+     */
+    private static int weight(Class<?>[] paramTypes, Class<?>[] argTypes) {
+        int weight = 0;
+        for (int i = 0; i < paramTypes.length; i++) {
+            Class<?> paramType = paramTypes[i];
+            Class<?> argType = argTypes[i];
+            if (argType == null) {
+                if (paramType.isPrimitive()) {
+                    return Integer.MAX_VALUE;
+                }
+                continue;
+            }
+            if (!ClassUtils.isAssignable(paramType, argType)) {
+                return Integer.MAX_VALUE;
+            }
+            if (paramType == argType) {
+                continue;
+            }
+            if (paramType.isPrimitive() || argType.isPrimitive()) {
+                weight += 1;
+                continue;
+            }
+            Class<?> superClass = argType.getSuperclass();
+            int distance = 2;
+            while (superClass != null && paramType.isAssignableFrom(superClass)) {
+                distance += 2;
+                superClass = superClass.getSuperclass();
+            }
+            weight += (paramType.isInterface() ? distance + 1 : distance);
+        }
+        return weight;
+    }
+
+    private static CompiledInvoker compile(Method method) throws NoSuchMethodException {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException ex) {
+            try {
+                method.setAccessible(true);
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException | RuntimeException e) {
+                NoSuchMethodException failure = new NoSuchMethodException("无法访问方法:" + method);
+                failure.initCause(e);
+                throw failure;
+            }
+        }
+        handle = handle.asSpreader(Object[].class, method.getParameterCount());
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return new CompiledInvoker(method, handle.asType(INVOKER_TYPE));
+    }
+
+    /**
+     * 调用器缓存键
+     */
+    private static final class Key {
+
+        private final Class<?> targetClass;
+
+        private final String methodName;
+
+        private final Class<?>[] argTypes;
+
+        private final int hash;
+
+        Key(Class<?> targetClass, String methodName, Class<?>[] argTypes) {
+            this.targetClass = targetClass;
+            this.methodName = methodName;
+            this.argTypes = argTypes;
+            this.hash = (targetClass.hashCode() * 31 + methodName.hashCode()) * 31 + Arrays.hashCode(argTypes);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return targetClass == key.targetClass && methodName.equals(key.methodName)
+                    && Arrays.equals(argTypes, key.argTypes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
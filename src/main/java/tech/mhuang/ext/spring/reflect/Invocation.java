@@ -0,0 +1,82 @@
+package tech.mhuang.ext.spring.reflect;
+
+import org.springframework.util.Assert;
+
+/**
+ * 一次bean方法调用.
+ * 调用目标为bean名称或bean类型
+ *
+ * @author mhuang
+ * @since 1.3.1
+ * @see SpringReflectInvoke#invokeAll
+ */
+public final class Invocation {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Object bean;
+
+    private final String methodName;
+
+    private final Object[] args;
+
+    private Invocation(Object bean, String methodName, Object[] args) {
+        Assert.notNull(methodName, "Method name must not be null");
+        this.bean = bean;
+        this.methodName = methodName;
+        this.args = (args == null ? NO_ARGS : args);
+    }
+
+    /**
+     * 调用指定名称bean的方法
+     *
+     * @param beanName   bean名称
+     * @param methodName 方法名
+     * @param args       参数
+     * @return 调用
+     */
+    public static Invocation of(String beanName, String methodName, Object... args) {
+        Assert.notNull(beanName, "Bean name must not be null");
+        return new Invocation(beanName, methodName, args);
+    }
+
+    /**
+     * 调用指定类型bean的方法
+     *
+     * @param beanType   bean类型
+     * @param methodName 方法名
+     * @param args       参数
+     * @return 调用
+     */
+    public static Invocation of(Class<?> beanType, String methodName, Object... args) {
+        Assert.notNull(beanType, "Bean type must not be null");
+        return new Invocation(beanType, methodName, args);
+    }
+
+    /**
+     * 获取调用目标、bean名称或bean类型
+     *
+     * @return 调用目标
+     */
+    public Object getBean() {
+        return bean;
+    }
+
+    /**
+     * 获取方法名
+     *
+     * @return 方法名
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * 获取参数
+     *
+     * @return 参数
+     */
+    public Object[] getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,302 @@
+package tech.mhuang.ext.spring.reflect;
+
+import tech.mhuang.ext.spring.pool.SpringThreadPool;
+import tech.mhuang.ext.spring.start.SpringContextHolder;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次批量异步调用.
+ * 每个调用作为单独的任务提交、由信号量限制同时执行的调用数;
+ * 调用完成或超时后释放名额并按列表顺序提交下一个调用、超时的调用不再占用名额。
+ * 超时从调用提交到线程池时开始计算、线程池中排队的调用同样会超时
+ *
+ * @param <T> 返回值类型
+ * @author mhuang
+ * @since 1.3.1
+ * @see SpringReflectInvoke#invokeAll
+ */
+final class InvocationBatch<T> {
+
+    private final List<Call> calls;
+
+    private final Executor executor;
+
+    private final long timeoutNanos;
+
+    private final Semaphore slots;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * 提交调用的请求数、只有从0开始计数的线程执行提交、其余请求由该线程循环处理
+     */
+    private final AtomicInteger dispatching = new AtomicInteger();
+
+    private InvocationBatch(List<Call> calls, Executor executor, int maxConcurrency, long timeoutNanos) {
+        this.calls = calls;
+        this.executor = executor;
+        this.timeoutNanos = timeoutNanos;
+        this.slots = new Semaphore(maxConcurrency);
+    }
+
+    /**
+     * 解析并开始批量调用
+     *
+     * @param invoke         反射调用、用于解析参数类型
+     * @param invocations    调用列表
+     * @param executor       线程池、为null时使用默认线程池
+     * @param maxConcurrency 最大并发数
+     * @param timeoutNanos   单次调用的超时纳秒数、小于等于0时不限制
+     * @param <T>            返回值类型
+     * @return 按调用列表顺序的调用结果
+     */
+    static <T> List<CompletableFuture<T>> start(SpringReflectInvoke invoke, List<Invocation> invocations, Executor executor,
+                                                int maxConcurrency, long timeoutNanos) {
+        List<CompletableFuture<T>> results = new ArrayList<>(invocations.size());
+        List<InvocationBatch<T>.Call> calls = new ArrayList<>(invocations.size());
+        InvocationBatch<T> batch = new InvocationBatch<>(calls, (executor == null ? Defaults.POOL : executor),
+                maxConcurrency, timeoutNanos);
+        Map<Key, Group> groups = new HashMap<>();
+        for (Invocation invocation : invocations) {
+            CompletableFuture<T> result = new CompletableFuture<>();
+            results.add(result);
+            try {
+                Group group = groups.get(new Key(invocation));
+                if (group == null) {
+                    group = new Group(lookup(invocation.getBean()), invocation.getMethodName());
+                    groups.put(new Key(invocation), group);
+                }
+                Object[] args = invocation.getArgs();
+                calls.add(batch.new Call(group.bean, group.invoker(CompiledInvoker.argTypes(invoke, args)), args, result));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        }
+        batch.dispatch();
+        return results;
+    }
+
+    private static Object lookup(Object bean) {
+        return (bean instanceof Class ? SpringContextHolder.getBean((Class<?>) bean) : SpringContextHolder.getBean((String) bean));
+    }
+
+    /**
+     * 在名额允许时按列表顺序提交调用、线程池拒绝的调用以拒绝异常失败.
+     * 线程池在提交线程中执行调用时、调用完成后的提交请求由外层循环处理而不递归、调用栈深度与批量大小无关
+     */
+    private void dispatch() {
+        if (dispatching.getAndIncrement() != 0) {
+            return;
+        }
+        int requests = 1;
+        do {
+            while (next.get() < calls.size() && slots.tryAcquire()) {
+                Call call = calls.get(next.getAndIncrement());
+                try {
+                    call.schedule();
+                    executor.execute(call);
+                } catch (RuntimeException e) {
+                    call.cancelTimer();
+                    call.result.completeExceptionally(e);
+                    call.release(false);
+                }
+            }
+            requests = dispatching.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    /**
+     * 调用分组的键、同一bean和方法
+     */
+    private static final class Key {
+
+        private final Object bean;
+
+        private final String methodName;
+
+        Key(Invocation invocation) {
+            this.bean = invocation.getBean();
+            this.methodName = invocation.getMethodName();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return bean.equals(key.bean) && methodName.equals(key.methodName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * bean.hashCode() + methodName.hashCode();
+        }
+    }
+
+    /**
+     * 调用分组、共享bean查找结果、每种参数类型只解析一次调用器
+     */
+    private static final class Group {
+
+        private final Object bean;
+
+        private final String methodName;
+
+        private final Map<List<Class<?>>, CompiledInvoker> invokers = new HashMap<>();
+
+        private Class<?>[] lastArgTypes;
+
+        private CompiledInvoker lastInvoker;
+
+        Group(Object bean, String methodName) {
+            this.bean = bean;
+            this.methodName = methodName;
+        }
+
+        CompiledInvoker invoker(Class<?>[] argTypes) throws NoSuchMethodException {
+            if (lastInvoker != null && Arrays.equals(lastArgTypes, argTypes)) {
+                return lastInvoker;
+            }
+            List<Class<?>> key = Arrays.asList(argTypes);
+            CompiledInvoker invoker = invokers.get(key);
+            if (invoker == null) {
+                invoker = CompiledInvoker.of(bean.getClass(), methodName, argTypes);
+                invokers.put(key, invoker);
+            }
+            lastArgTypes = argTypes;
+            lastInvoker = invoker;
+            return invoker;
+        }
+    }
+
+    /**
+     * 已解析的单次调用
+     */
+    private final class Call implements Runnable {
+
+        private final Object bean;
+
+        private final CompiledInvoker invoker;
+
+        private final Object[] args;
+
+        private final CompletableFuture<T> result;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile ScheduledFuture<?> timer;
+
+        Call(Object bean, CompiledInvoker invoker, Object[] args, CompletableFuture<T> result) {
+            this.bean = bean;
+            this.invoker = invoker;
+            this.args = args;
+            this.result = result;
+        }
+
+        /**
+         * 提交前开始计时
+         */
+        void schedule() {
+            if (timeoutNanos > 0) {
+                timer = Defaults.TIMER.schedule(this::timeout, timeoutNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (result.isDone()) {
+                release(true);
+                return;
+            }
+            try {
+                result.complete(invoker.invoke(bean, args));
+            } catch (InvocationTargetException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                cancelTimer();
+                release(true);
+            }
+        }
+
+        void cancelTimer() {
+            ScheduledFuture<?> current = timer;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        private void timeout() {
+            result.completeExceptionally(new TimeoutException("调用超时:" + invoker.getMethod()));
+            release(true);
+        }
+
+        /**
+         * 释放名额、调用完成和超时只释放一次
+         */
+        void release(boolean dispatchNext) {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+                if (dispatchNext) {
+                    dispatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * 默认线程池及超时计时器、首次使用时创建.
+     * 默认线程池不排队、按需创建线程、并发由每次批量调用的名额限制,
+     * 超时未返回的调用占用的线程不会阻塞其他调用、提交调用的线程也不会执行调用。
+     * 线程数不超过{@link #MAX_THREADS}、超时未返回的调用持续占满线程时新的调用以拒绝异常失败
+     */
+    private static final class Defaults {
+
+        /**
+         * 默认线程池的最大线程数
+         */
+        private static final int MAX_THREADS = 256;
+
+        private static final SpringThreadPool POOL = new SpringThreadPool();
+
+        private static final ScheduledExecutorService TIMER;
+
+        static {
+            POOL.setThreadNamePrefix("reflect-invoke-");
+            POOL.setDaemon(true);
+            POOL.setMaxPoolSize(MAX_THREADS);
+            POOL.setQueueCapacity(0);
+            POOL.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            POOL.initialize();
+            ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "reflect-invoke-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            timer.setRemoveOnCancelPolicy(true);
+            TIMER = timer;
+        }
+    }
+}
@@ -1,34 +1,107 @@
 package tech.mhuang.ext.spring.reflect;
 
+import org.springframework.util.Assert;
 import tech.mhuang.core.reflect.BaseReflectInvoke;
 import tech.mhuang.ext.spring.start.SpringContextHolder;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
- * 反射调用（依赖spring）
+ * 反射调用（依赖spring）.
+ * 按(bean类型,方法名,参数类型)解析的方法会编译为MethodHandle并缓存、
+ * 参数可为方法参数类型的子类型或对应的基本/包装类型。
+ * 支持通过{@link #invokeAll}在线程池中批量异步调用
  *
  * @author mhuang
  * @since 1.0.0
  */
 public class SpringReflectInvoke implements BaseReflectInvoke {
+
+    /**
+     * 批量调用的默认并发数
+     */
+    public static final int DEFAULT_CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+    private Executor executor;
+
+    /**
+     * 设置批量调用使用的线程池、未设置时使用共享的SpringThreadPool、其不排队并按需创建线程
+     *
+     * @param executor 线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 调用上下文中指定类型bean的方法
+     *
+     * @param clazz      bean类型
+     * @param methodName 方法名
+     * @param params     参数
+     * @param <T>        返回值类型
+     * @return 方法返回值
+     */
     @Override
     public <T> T getMethodToValue(Class<?> clazz, String methodName, Object... params) throws NoSuchMethodException, SecurityException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-        Method method = clazz.getClass().getMethod(methodName);
-        return (T) method.invoke(clazz);
+        return invoke(SpringContextHolder.getBean(clazz), methodName, params);
     }
 
+    /**
+     * 调用上下文中指定名称bean的方法
+     *
+     * @param clazzName  bean名称
+     * @param methodName 方法名
+     * @param params     参数
+     * @param <T>        返回值类型
+     * @return 方法返回值
+     */
     @Override
     public <T> T getMethodToValue(String clazzName, String methodName, Object... params) throws NoSuchMethodException, SecurityException, IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-        Object bean =  SpringContextHolder.getBean(clazzName);
-        Class<?>[] clazzes = new Class[params.length];
-        int index = 0;
-        for(Object obj : params){
-            clazzes[index++] = checkType(obj);
-        }
-        Method method = bean.getClass().getMethod(methodName, clazzes);
-        return (T) method.invoke(bean,params);
+        return invoke(SpringContextHolder.getBean(clazzName), methodName, params);
+    }
+
+    private <T> T invoke(Object bean, String methodName, Object[] params) throws NoSuchMethodException, InvocationTargetException {
+        Object[] args = (params == null ? new Object[0] : params);
+        return CompiledInvoker.of(bean.getClass(), methodName, CompiledInvoker.argTypes(this, args)).invoke(bean, args);
+    }
+
+    /**
+     * 批量异步调用、并发数为{@link #DEFAULT_CONCURRENCY}且不限制单次调用耗时
+     *
+     * @param invocations 调用列表
+     * @param <T>         返回值类型
+     * @return 按调用列表顺序的调用结果
+     */
+    public <T> List<CompletableFuture<T>> invokeAll(List<Invocation> invocations) {
+        return invokeAll(invocations, DEFAULT_CONCURRENCY, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 批量异步调用.
+     * 同一bean和方法的调用只查找一次bean、每种参数类型只解析一次调用器;
+     * 每个调用单独提交到线程池、最多同时执行maxConcurrency个调用、其余按列表顺序排队。
+     * 单次调用从提交到线程池时开始计时、超时后对应结果以TimeoutException失败并释放名额,
+     * 已开始的调用不会被中断、仍占用其线程直到返回。线程池拒绝的调用以拒绝异常失败,
+     * 默认线程池最多256个线程、超时未返回的调用占满全部线程时新的调用被拒绝。
+     * 自定义线程池在提交线程中执行任务时调用依次执行、此时超时只标记结果而不能提前返回
+     *
+     * @param invocations    调用列表
+     * @param maxConcurrency 最大并发数
+     * @param timeout        单次调用的超时时间、小于等于0时不限制
+     * @param unit           超时时间单位
+     * @param <T>            返回值类型
+     * @return 按调用列表顺序的调用结果
+     */
+    public <T> List<CompletableFuture<T>> invokeAll(List<Invocation> invocations, int maxConcurrency, long timeout, TimeUnit unit) {
+        Assert.notNull(invocations, "Invocations must not be null");
+        Assert.isTrue(maxConcurrency > 0, "Max concurrency must be greater than 0");
+        Assert.notNull(unit, "Time unit must not be null");
+        return InvocationBatch.start(this, invocations, executor, maxConcurrency, unit.toNanos(timeout));
     }
 }
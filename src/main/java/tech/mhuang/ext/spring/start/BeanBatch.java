@@ -0,0 +1,141 @@
+package tech.mhuang.ext.spring.start;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 批量动态注册bean.
+ * 先注册全部bean定义、查找缓存只失效一次,
+ * 再按需统一创建、或以懒加载方式返回句柄在首次使用时创建
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class BeanBatch {
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final List<BeanHandle<?>> handles = new ArrayList<>();
+
+    private boolean registered;
+
+    BeanBatch() {
+
+    }
+
+    /**
+     * 添加需要注册的bean
+     *
+     * @param beanName 注册的Bean Name
+     * @param clazz    注册的Bean class
+     * @param <T>      注册的Bean Class类型
+     * @return bean句柄、注册后可用
+     */
+    public <T> BeanHandle<T> add(String beanName, Class<T> clazz) {
+        return add(beanName, clazz, null);
+    }
+
+    /**
+     * 添加需要注册的bean
+     *
+     * @param beanName 注册的Bean Name
+     * @param clazz    注册的Bean class
+     * @param params   注册的Bean 传递的参数
+     * @param <T>      注册的Bean Class类型
+     * @return bean句柄、注册后可用
+     */
+    public <T> BeanHandle<T> add(String beanName, Class<T> clazz, Map<String, Object> params) {
+        Assert.state(!registered, "Batch already registered");
+        Assert.hasText(beanName, "Bean name must not be empty");
+        Assert.notNull(clazz, "Bean class must not be null");
+        BeanHandle<T> handle = new BeanHandle<>(beanName, clazz);
+        entries.add(new Entry(beanName, clazz, params));
+        handles.add(handle);
+        return handle;
+    }
+
+    /**
+     * 注册全部bean定义并依次创建bean
+     *
+     * @return 按添加顺序的bean句柄
+     */
+    public List<BeanHandle<?>> register() {
+        registerLazily();
+        createAll();
+        return getHandles();
+    }
+
+    /**
+     * 只注册全部bean定义、bean在句柄首次使用或调用createAll时创建
+     *
+     * @return 按添加顺序的bean句柄
+     */
+    public List<BeanHandle<?>> registerLazily() {
+        Assert.state(!registered, "Batch already registered");
+        registered = true;
+        SpringContextHolder.registerAll(entries);
+        return getHandles();
+    }
+
+    /**
+     * 依次创建尚未创建的bean
+     */
+    public void createAll() {
+        Assert.state(registered, "Batch not registered");
+        for (BeanHandle<?> handle : handles) {
+            if (!handle.isCreated()) {
+                handle.get();
+            }
+        }
+    }
+
+    /**
+     * 使用指定线程池并行创建尚未创建的bean、全部完成后返回
+     *
+     * @param executor 执行创建的线程池
+     */
+    public void createAll(Executor executor) {
+        Assert.state(registered, "Batch not registered");
+        Assert.notNull(executor, "Executor must not be null");
+        List<CompletableFuture<?>> futures = new ArrayList<>(handles.size());
+        for (BeanHandle<?> handle : handles) {
+            if (!handle.isCreated()) {
+                futures.add(CompletableFuture.runAsync(handle::get, executor));
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    /**
+     * 获取本批次的bean句柄
+     *
+     * @return 按添加顺序的bean句柄
+     */
+    public List<BeanHandle<?>> getHandles() {
+        return Collections.unmodifiableList(handles);
+    }
+
+    /**
+     * 待注册的bean定义
+     */
+    static final class Entry {
+
+        final String beanName;
+
+        final Class<?> beanClass;
+
+        final Map<String, Object> params;
+
+        Entry(String beanName, Class<?> beanClass, Map<String, Object> params) {
+            this.beanName = beanName;
+            this.beanClass = beanClass;
+            this.params = params;
+        }
+    }
+}
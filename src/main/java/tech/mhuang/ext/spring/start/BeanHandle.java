@@ -0,0 +1,62 @@
+package tech.mhuang.ext.spring.start;
+
+/**
+ * 动态注册bean的句柄.
+ * 持有注册的名称和类型、首次调用{@link #get()}时才创建bean;
+ * 每次获取都经{@link SpringContextHolder}查找、替换或删除bean后获取到的是当前的bean
+ *
+ * @param <T> bean类型
+ * @author mhuang
+ * @since 1.3.1
+ */
+public final class BeanHandle<T> {
+
+    private final String name;
+
+    private final Class<T> type;
+
+    private volatile boolean created;
+
+    BeanHandle(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * 获取注册的bean名称
+     *
+     * @return bean名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取注册的bean类型
+     *
+     * @return bean类型
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * 获取bean、首次调用时创建、原型bean每次获取新的实例
+     *
+     * @return bean
+     */
+    public T get() {
+        T bean = SpringContextHolder.getBean(name, type);
+        created = true;
+        return bean;
+    }
+
+    /**
+     * 是否已通过本句柄获取过bean
+     *
+     * @return 已获取返回true
+     */
+    public boolean isCreated() {
+        return created;
+    }
+}
@@ -1,24 +1,87 @@
 package tech.mhuang.ext.spring.start;
 
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.config.NamedBeanHolder;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import tech.mhuang.core.util.CollectionUtil;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
- * spring启动装载类
+ * spring启动装载类.
+ * 单例bean按名称和类型查找的结果会被缓存、通过本类注册或删除bean时精确失效,
+ * 原型及其他作用域的bean不缓存。
+ * 注册、删除、替换bean按bean名称分段加锁、可在多线程中并发调用,
+ * 替换过程中按名称或类型查找的线程会等待替换完成而不会查找失败
  *
  * @author mhuang
  * @since 1.0.0
  */
 public class SpringContextHolder implements ApplicationContextAware {
 
-    private static ApplicationContext applicationContext;
+    private static volatile ApplicationContext applicationContext;
 
-    private static DefaultListableBeanFactory beanFactory;
+    private static volatile DefaultListableBeanFactory beanFactory;
+
+    /**
+     * bean名称分段锁的段数
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Object[] LOCKS = new Object[LOCK_STRIPES];
+
+    static {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            LOCKS[i] = new Object();
+        }
+    }
+
+    /**
+     * 替换bean时先删除再注册的过程持有写锁、按类型查找失败的线程持有读锁重试、
+     * 重试期间bean定义不会被替换
+     */
+    private static final ReadWriteLock REPLACING = new ReentrantReadWriteLock();
+
+    /**
+     * 先删除再注册的替换次数、替换间隙中按类型查找的结果可能被Spring缓存为缺失
+     */
+    private static final AtomicLong REPLACEMENTS = new AtomicLong();
+
+    /**
+     * 已清空Spring类型缓存时的替换次数、之后没有新的替换时查找失败不再清空
+     */
+    private static volatile long refreshedReplacements;
+
+    /**
+     * bean定义的变更次数、用于丢弃与变更并发写入的缓存
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    /**
+     * 按名称查找的单例bean缓存
+     */
+    private static final Map<String, CachedBean> NAME_CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * 按类型查找的单例bean缓存
+     */
+    private static final Map<Class<?>, CachedBean> TYPE_CACHE = new ConcurrentHashMap<>();
 
     /**
      * 获取上下文
@@ -36,9 +99,11 @@ public class SpringContextHolder implements ApplicationContextAware {
      */
     @Override
     public void setApplicationContext(ApplicationContext applicationContext) {
-        if (SpringContextHolder.applicationContext == null) {
-            SpringContextHolder.applicationContext = applicationContext;
-            beanFactory = (DefaultListableBeanFactory) applicationContext.getAutowireCapableBeanFactory();
+        synchronized (SpringContextHolder.class) {
+            if (SpringContextHolder.applicationContext == null) {
+                beanFactory = (DefaultListableBeanFactory) applicationContext.getAutowireCapableBeanFactory();
+                SpringContextHolder.applicationContext = applicationContext;
+            }
         }
     }
 
@@ -49,7 +114,11 @@ public class SpringContextHolder implements ApplicationContextAware {
      * @return Object 返回对应bean
      */
     public static Object getBean(String name) {
-        return applicationContext.getBean(name);
+        CachedBean cached = NAME_CACHE.get(name);
+        if (cached != null) {
+            return cached.bean;
+        }
+        return getBeanByName(name, null);
     }
 
     /**
@@ -62,7 +131,41 @@ public class SpringContextHolder implements ApplicationContextAware {
      */
 
     public static <T> T getBean(String name, Class<T> clazz) {
-        return applicationContext.getBean(name, clazz);
+        CachedBean cached = NAME_CACHE.get(name);
+        if (cached != null && clazz.isInstance(cached.bean)) {
+            return clazz.cast(cached.bean);
+        }
+        return getBeanByName(name, clazz);
+    }
+
+    /**
+     * 按名称查找并缓存.
+     * 因bean定义缺失而失败时等待该名称上进行中的替换完成、期间bean定义发生过变更则重新查找;
+     * 创建bean时不持有分段锁、避免bean初始化中查找其他bean时多个线程以相反顺序获取分段锁
+     *
+     * @param clazz 获取Bean指定的class、为null时不检查类型
+     */
+    private static <T> T getBeanByName(String name, Class<T> clazz) {
+        long generation = GENERATION.get();
+        while (true) {
+            try {
+                T bean = applicationContext.getBean(name, clazz);
+                cacheByName(name, bean, generation);
+                return bean;
+            } catch (BeansException e) {
+                if (!isMissingDefinition(e)) {
+                    throw e;
+                }
+                synchronized (lock(name)) {
+                    // 只等待进行中的替换完成
+                }
+                long current = GENERATION.get();
+                if (current == generation) {
+                    throw e;
+                }
+                generation = current;
+            }
+        }
     }
 
     /**
@@ -71,7 +174,10 @@ public class SpringContextHolder implements ApplicationContextAware {
      * @param name 删除的BeanName
      */
     public static void removeBean(String name) {
-        beanFactory.removeBeanDefinition(name);
+        synchronized (lock(name)) {
+            beanFactory.removeBeanDefinition(name);
+            invalidate(Collections.singleton(name), Collections.emptySet());
+        }
     }
 
     /**
@@ -96,12 +202,85 @@ public class SpringContextHolder implements ApplicationContextAware {
      * @return 返回注册的Bean
      */
     public static <T> T registerBean(String beanName, Class<T> clazz, Map<String, Object> params) {
+        AbstractBeanDefinition definition = definition(clazz, params);
+        synchronized (lock(beanName)) {
+            beanFactory.registerBeanDefinition(beanName, definition);
+            invalidate(Collections.singleton(beanName), Collections.singleton(clazz));
+        }
+        return getBean(beanName, clazz);
+    }
+
+    /**
+     * bean替换、以新的定义原子地替换同名bean.
+     * 替换期间按名称查找该bean的线程获取到旧bean或新bean、不会因bean定义暂时缺失而失败
+     *
+     * @param beanName 替换的Bean Name
+     * @param clazz    新的Bean class
+     * @param params   新的Bean 传递的参数
+     * @param <T>      新的Bean Class类型
+     * @return 返回替换后的Bean
+     */
+    public static <T> T replaceBean(String beanName, Class<T> clazz, Map<String, Object> params) {
+        AbstractBeanDefinition definition = definition(clazz, params);
+        synchronized (lock(beanName)) {
+            if (beanFactory.isAllowBeanDefinitionOverriding() || !beanFactory.containsBeanDefinition(beanName)) {
+                beanFactory.registerBeanDefinition(beanName, definition);
+            } else {
+                REPLACING.writeLock().lock();
+                try {
+                    REPLACEMENTS.incrementAndGet();
+                    beanFactory.removeBeanDefinition(beanName);
+                    beanFactory.registerBeanDefinition(beanName, definition);
+                } finally {
+                    REPLACING.writeLock().unlock();
+                }
+            }
+            invalidate(Collections.singleton(beanName), Collections.singleton(clazz));
+        }
+        return getBean(beanName, clazz);
+    }
+
+    /**
+     * 创建批量注册、适用于一次注册大量bean的场景
+     *
+     * @return 批量注册
+     * @see BeanBatch
+     */
+    public static BeanBatch batch() {
+        return new BeanBatch();
+    }
+
+    /**
+     * 注册一批bean定义、注册完成后统一失效查找缓存.
+     * 中途注册失败时已注册的bean定义保留、其缓存同样失效
+     *
+     * @param entries bean定义
+     */
+    static void registerAll(List<BeanBatch.Entry> entries) {
+        List<String> names = new ArrayList<>(entries.size());
+        Set<Class<?>> classes = new HashSet<>();
+        try {
+            for (BeanBatch.Entry entry : entries) {
+                AbstractBeanDefinition definition = definition(entry.beanClass, entry.params);
+                synchronized (lock(entry.beanName)) {
+                    beanFactory.registerBeanDefinition(entry.beanName, definition);
+                }
+                names.add(entry.beanName);
+                classes.add(entry.beanClass);
+            }
+        } finally {
+            if (!names.isEmpty()) {
+                invalidate(names, classes);
+            }
+        }
+    }
+
+    private static AbstractBeanDefinition definition(Class<?> clazz, Map<String, Object> params) {
         BeanDefinitionBuilder beanDefinitionBuilder = BeanDefinitionBuilder.genericBeanDefinition(clazz);
         if (CollectionUtil.isNotEmpty(params)) {
             params.forEach((key, value) -> beanDefinitionBuilder.addPropertyValue(key, value));
         }
-        beanFactory.registerBeanDefinition(beanName, beanDefinitionBuilder.getBeanDefinition());
-        return getBean(beanName, clazz);
+        return beanDefinitionBuilder.getBeanDefinition();
     }
 
     /**
@@ -112,6 +291,136 @@ public class SpringContextHolder implements ApplicationContextAware {
      * @return Object 返回对应Bean
      */
     public static <T> T getBean(Class<T> requiredType) {
-        return applicationContext.getBean(requiredType);
+        CachedBean cached = TYPE_CACHE.get(requiredType);
+        if (cached != null) {
+            return requiredType.cast(cached.bean);
+        }
+        long generation = GENERATION.get();
+        long replacements = REPLACEMENTS.get();
+        NamedBeanHolder<T> holder;
+        try {
+            holder = beanFactory.resolveNamedBean(requiredType);
+        } catch (BeansException e) {
+            if (!isMissingDefinition(e)) {
+                throw e;
+            }
+            REPLACING.readLock().lock();
+            try {
+                return getBeanAfterReplacement(requiredType, replacements);
+            } finally {
+                REPLACING.readLock().unlock();
+            }
+        }
+        if (beanFactory.isSingleton(holder.getBeanName())) {
+            cache(TYPE_CACHE, requiredType, new CachedBean(holder.getBeanName(), holder.getBeanInstance()), generation);
+        }
+        return holder.getBeanInstance();
+    }
+
+    /**
+     * 按类型重新查找.
+     * 替换间隙中并发的按类型查找可能在bean定义恢复后才将缺失结果写入Spring的类型缓存,
+     * 本次查找期间发生过替换、或最近一次替换后尚未清空该缓存时清空后再查找一次
+     *
+     * @param replacements 本次查找开始时的替换次数
+     */
+    private static <T> T getBeanAfterReplacement(Class<T> requiredType, long replacements) {
+        try {
+            return applicationContext.getBean(requiredType);
+        } catch (NoSuchBeanDefinitionException e) {
+            long current = REPLACEMENTS.get();
+            if (current == replacements && current == refreshedReplacements) {
+                throw e;
+            }
+            beanFactory.clearMetadataCache();
+            refreshedReplacements = current;
+            return applicationContext.getBean(requiredType);
+        }
+    }
+
+    /**
+     * 清空bean查找缓存、绕过本类直接修改bean定义后调用
+     */
+    public static void clearCache() {
+        NAME_CACHE.clear();
+        TYPE_CACHE.clear();
+    }
+
+    private static void cacheByName(String name, Object bean, long generation) {
+        if (name.startsWith(BeanFactory.FACTORY_BEAN_PREFIX) || !beanFactory.containsBean(name)
+                || !beanFactory.isSingleton(name)) {
+            return;
+        }
+        cache(NAME_CACHE, name, new CachedBean(beanFactory.canonicalName(name), bean), generation);
+    }
+
+    /**
+     * 写入缓存、查找期间bean定义发生变更时撤销写入、避免缓存已被替换或删除的bean
+     */
+    private static <K> void cache(Map<K, CachedBean> cache, K key, CachedBean cached, long generation) {
+        cache.put(key, cached);
+        if (GENERATION.get() != generation) {
+            cache.remove(key, cached);
+        }
+    }
+
+    /**
+     * bean定义变更后失效缓存、需在修改bean定义之后调用
+     */
+    private static void invalidate(Collection<String> beanNames, Collection<Class<?>> beanClasses) {
+        GENERATION.incrementAndGet();
+        evict(beanNames);
+        if (!beanClasses.isEmpty()) {
+            evictAssignable(beanClasses);
+        }
+    }
+
+    /**
+     * 查找是否因bean定义缺失而失败、包括创建bean期间其定义被并发删除的情况
+     */
+    private static boolean isMissingDefinition(BeansException e) {
+        return e instanceof NoSuchBeanDefinitionException || e.contains(NoSuchBeanDefinitionException.class);
+    }
+
+    /**
+     * 获取bean名称对应的分段锁
+     */
+    private static Object lock(String beanName) {
+        return LOCKS[(beanName.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    /**
+     * 移除指定bean的缓存、包括通过别名和类型缓存的结果
+     */
+    private static void evict(Collection<String> beanNames) {
+        Set<String> canonicalNames = new HashSet<>(beanNames.size() * 2);
+        for (String beanName : beanNames) {
+            NAME_CACHE.remove(beanName);
+            canonicalNames.add(beanFactory.canonicalName(beanName));
+        }
+        NAME_CACHE.values().removeIf(cached -> canonicalNames.contains(cached.name));
+        TYPE_CACHE.values().removeIf(cached -> canonicalNames.contains(cached.name));
+    }
+
+    /**
+     * 新注册的bean可能改变按类型查找的结果、移除其所有父类型的缓存
+     */
+    private static void evictAssignable(Collection<Class<?>> beanClasses) {
+        TYPE_CACHE.keySet().removeIf(type -> beanClasses.stream().anyMatch(type::isAssignableFrom));
+    }
+
+    /**
+     * 缓存的单例bean
+     */
+    private static final class CachedBean {
+
+        private final String name;
+
+        private final Object bean;
+
+        CachedBean(String name, Object bean) {
+            this.name = name;
+            this.bean = bean;
+        }
     }
 }
\ No newline at end of file
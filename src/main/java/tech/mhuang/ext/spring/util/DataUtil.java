@@ -1,24 +1,30 @@
 package tech.mhuang.ext.spring.util;
 
-import tech.mhuang.core.util.CollectionUtil;
+import tech.mhuang.ext.spring.copy.BeanCopier;
+import tech.mhuang.ext.spring.copy.BulkCopier;
+import tech.mhuang.ext.spring.copy.BulkCopyException;
+import tech.mhuang.ext.spring.copy.CopyConverters;
+import tech.mhuang.ext.spring.copy.CopyErrorPolicy;
+import tech.mhuang.ext.spring.copy.CopyFeature;
+import tech.mhuang.ext.spring.copy.KeyValuePivot;
+import tech.mhuang.ext.spring.copy.PropertyReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.FatalBeanException;
-import org.springframework.util.ClassUtils;
 
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 数据处理工具类.
- * 该工具类基于spring提供的实现
+ * 该工具类基于spring提供的实现、对象复制使用缓存的{@link BeanCopier}复制计划
  *
  * @author mhuang
  * @since 1.0.0
@@ -27,6 +33,10 @@ public class DataUtil {
 
     private static final Logger logger = LoggerFactory.getLogger(DataUtil.class);
 
+    private static final Set<CopyFeature> CONVERT = Collections.unmodifiableSet(EnumSet.of(CopyFeature.CONVERT));
+
+    private static final Set<CopyFeature> DEEP = Collections.unmodifiableSet(EnumSet.of(CopyFeature.DEEP));
+
     /**
      * 将源列表的数据复制到新列表的类上
      *
@@ -49,21 +59,106 @@ public class DataUtil {
      * @return E   返回转换后类的列表
      */
     public static <E> List<E> copyTo(List<?> source, Class<E> destinationClass, String... ignore) {
-        if (CollectionUtil.isEmpty(source)) {
-            return Collections.emptyList();
-        }
-        List<E> res = new ArrayList<>(source.size());
-        source.stream().forEach(o -> {
-            try {
-                E e = destinationClass.newInstance();
-                BeanUtils.copyProperties(o, e, ignore);
-                res.add(e);
-            } catch (Exception e) {
-                logger.error("copy数据异常失败", e);
+        return BulkCopier.of(destinationClass).ignore(ignore).copy(source);
+    }
+
+    /**
+     * 将源列表的数据复制到新列表的类上、并按指定策略处理复制失败的元素
+     *
+     * @param source           源列表
+     * @param destinationClass 转换后的类
+     * @param errorPolicy      复制失败的处理策略
+     * @param ignore           忽略的源列表的属性
+     * @param <E>              转换后的类类型
+     * @return E   返回转换后类的列表
+     * @throws BulkCopyException 策略为FAIL_FAST或COLLECT且存在失败元素时抛出
+     */
+    public static <E> List<E> copyTo(List<?> source, Class<E> destinationClass, CopyErrorPolicy errorPolicy, String... ignore) {
+        return BulkCopier.of(destinationClass).ignore(ignore).errorPolicy(errorPolicy).copy(source);
+    }
+
+    /**
+     * 并行将源列表的数据复制到新列表的类上、列表长度小于{@link BulkCopier#DEFAULT_PARALLEL_THRESHOLD}时顺序复制
+     *
+     * @param source           源列表
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源列表的属性
+     * @param <E>              转换后的类类型
+     * @return E   返回转换后类的列表、顺序与源列表一致
+     */
+    public static <E> List<E> copyToParallel(List<?> source, Class<E> destinationClass, String... ignore) {
+        return copyToParallel(source, destinationClass, CopyErrorPolicy.SKIP, ignore);
+    }
+
+    /**
+     * 并行将源列表的数据复制到新列表的类上、并按指定策略处理复制失败的元素
+     *
+     * @param source           源列表
+     * @param destinationClass 转换后的类
+     * @param errorPolicy      复制失败的处理策略
+     * @param ignore           忽略的源列表的属性
+     * @param <E>              转换后的类类型
+     * @return E   返回转换后类的列表、顺序与源列表一致
+     * @throws BulkCopyException 策略为FAIL_FAST或COLLECT且存在失败元素时抛出
+     */
+    public static <E> List<E> copyToParallel(List<?> source, Class<E> destinationClass, CopyErrorPolicy errorPolicy, String... ignore) {
+        return BulkCopier.of(destinationClass).ignore(ignore).errorPolicy(errorPolicy)
+                .parallel(BulkCopier.DEFAULT_PARALLEL_THRESHOLD).copy(source);
+    }
+
+    /**
+     * 将源流的数据惰性复制到新类上、元素在被消费时才复制
+     *
+     * @param source           源流
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源属性
+     * @param <E>              转换后的类类型
+     * @return 惰性复制的流、源元素为null时对应null
+     */
+    public static <E> Stream<E> copyToStream(Stream<?> source, Class<E> destinationClass, String... ignore) {
+        return source.map(BeanCopier.mapping(destinationClass, ignore));
+    }
+
+    /**
+     * 将源集合的数据惰性复制到新类上、元素在被消费时才复制
+     *
+     * @param source           源集合
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源属性
+     * @param <E>              转换后的类类型
+     * @return 惰性复制的流、源元素为null时对应null
+     */
+    public static <E> Stream<E> copyToStream(Iterable<?> source, Class<E> destinationClass, String... ignore) {
+        return copyToStream(StreamSupport.stream(source.spliterator(), false), destinationClass, ignore);
+    }
+
+    /**
+     * 将源迭代器的数据惰性复制到新类上、每次调用next时才复制对应元素
+     *
+     * @param source           源迭代器
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源属性
+     * @param <E>              转换后的类类型
+     * @return 惰性复制的迭代器、支持remove时委托给源迭代器
+     */
+    public static <E> Iterator<E> copyToIterator(Iterator<?> source, Class<E> destinationClass, String... ignore) {
+        Function<Object, E> mapping = BeanCopier.mapping(destinationClass, ignore);
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
             }
-        });
 
-        return res;
+            @Override
+            public E next() {
+                return mapping.apply(source.next());
+            }
+
+            @Override
+            public void remove() {
+                source.remove();
+            }
+        };
     }
 
     /**
@@ -89,15 +184,78 @@ public class DataUtil {
      */
     public static <E> E copyTo(Object source, Class<E> destinationClass, String... ignore) {
         try {
-            E e = destinationClass.newInstance();
-            BeanUtils.copyProperties(source, e, ignore);
-            return e;
+            return BeanCopier.create(source.getClass(), destinationClass, ignore).copy(source);
+        } catch (Exception e) {
+            logger.error("copy数据异常失败", e);
+        }
+        return null;
+    }
+
+    /**
+     * 对象copy、类型不一致的字段经类型转换后复制
+     * 如Integer到Long、Date到LocalDateTime、枚举到String、可通过{@link CopyConverters}注册自定义转换
+     *
+     * @param source           原对象的类
+     * @param destinationClass copy后存放的对象
+     * @param <E>              copy后存放的对象类型
+     * @param ignore           copy中忽略的字段
+     * @return E 返回copy存在的类对象
+     */
+    public static <E> E convertTo(Object source, Class<E> destinationClass, String... ignore) {
+        try {
+            return BeanCopier.create(source.getClass(), destinationClass, CONVERT, ignore).copy(source);
         } catch (Exception e) {
             logger.error("copy数据异常失败", e);
         }
         return null;
     }
 
+    /**
+     * 将源列表的数据复制到新列表的类上、类型不一致的字段经类型转换后复制
+     *
+     * @param source           源列表
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源列表的属性
+     * @param <E>              转换后的类类型
+     * @return E   返回转换后类的列表
+     * @see #convertTo(Object, Class, String...)
+     */
+    public static <E> List<E> convertTo(List<?> source, Class<E> destinationClass, String... ignore) {
+        return BulkCopier.of(destinationClass).ignore(ignore).features(CopyFeature.CONVERT).copy(source);
+    }
+
+    /**
+     * 对象深copy、子对象、集合元素及Map的值均复制为新对象、一次调用复制整个聚合
+     *
+     * @param source           原对象的类
+     * @param destinationClass copy后存放的对象
+     * @param <E>              copy后存放的对象类型
+     * @param ignore           copy中忽略的字段、仅作用于最外层对象
+     * @return E 返回copy存在的类对象
+     */
+    public static <E> E deepCopyTo(Object source, Class<E> destinationClass, String... ignore) {
+        try {
+            return BeanCopier.create(source.getClass(), destinationClass, DEEP, ignore).copy(source);
+        } catch (Exception e) {
+            logger.error("copy数据异常失败", e);
+        }
+        return null;
+    }
+
+    /**
+     * 将源列表的数据深复制到新列表的类上
+     *
+     * @param source           源列表
+     * @param destinationClass 转换后的类
+     * @param ignore           忽略的源列表的属性、仅作用于列表元素本身
+     * @param <E>              转换后的类类型
+     * @return E   返回转换后类的列表
+     * @see #deepCopyTo(Object, Class, String...)
+     */
+    public static <E> List<E> deepCopyTo(List<?> source, Class<E> destinationClass, String... ignore) {
+        return BulkCopier.of(destinationClass).ignore(ignore).features(CopyFeature.DEEP).copy(source);
+    }
+
     /**
      * 根据模块名和参数获取value，适合不知道值的情况
      *
@@ -111,30 +269,48 @@ public class DataUtil {
      * 比如 User类中有个userName的字段。你现在不知道类名，可通过 DataUtils.getValueByModelKey(user,"username",String.class)
      */
     public static <E> E getValueByModelKey(Object model, String key, Class<E> valueClass) {
-        Object result = null;
-        Class source = model.getClass();
-        PropertyDescriptor sourceKeyPd = BeanUtils.getPropertyDescriptor(source, key);
-        if (sourceKeyPd != null) {
-            Method readMethod = sourceKeyPd.getReadMethod();
-            if (readMethod != null) {
-                try {
-                    if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-                        readMethod.setAccessible(true);
-                    }
-                    result = readMethod.invoke(model);
-                    if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-                        readMethod.setAccessible(false);
-                    }
-                } catch (IllegalAccessException e) {
-                    logger.error("access异常", e);
-                } catch (IllegalArgumentException e) {
-                    logger.error("参数异常", e);
-                } catch (InvocationTargetException e) {
-                    logger.error("目标调用异常", e);
-                }
-            }
+        try {
+            return (E) PropertyReader.read(model, key);
+        } catch (FatalBeanException e) {
+            logger.error("目标调用异常", e);
         }
-        return (E) result;
+        return null;
+    }
+
+    /**
+     * 根据模块名和多个参数获取value、一次调用读取同一对象的多个字段
+     *
+     * @param model 需要获取的模块名
+     * @param keys  需要获取的key
+     * @return 按传入顺序组成的key与值、不存在的key对应null
+     */
+    public static Map<String, Object> getValueByModelKeys(Object model, String... keys) {
+        try {
+            return PropertyReader.readMany(model, keys);
+        } catch (FatalBeanException e) {
+            logger.error("目标调用异常", e);
+        }
+        return null;
+    }
+
+    /**
+     * 根据模块列表和参数获取每个模块的value、适合按字段名排序或分组的场景
+     *
+     * @param models     需要获取的模块列表
+     * @param key        需要获取的key
+     * @param valueClass 需要获取的key的值的对象
+     * @param <E>        需要获取的key的值的对象类型
+     * @return 按列表顺序的值
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> List<E> getValuesByModelKey(List<?> models, String key, Class<E> valueClass) {
+        try {
+            // 与getValueByModelKey一致、值类型由调用方保证、不逐个检查
+            return (List<E>) PropertyReader.readEach(models, key);
+        } catch (FatalBeanException e) {
+            logger.error("目标调用异常", e);
+        }
+        return null;
     }
 
     /**
@@ -160,63 +336,32 @@ public class DataUtil {
      */
     public static <E> E copyToKeyValue(List<?> sourceList, Class<E> destinationClass, String fieldKey, String fieldValue) {
         try {
-            E e = destinationClass.newInstance();
-
-            if (CollectionUtil.isEmpty(sourceList)) {
-                return null;
-            }
-
-            Class target = e.getClass();
-            PropertyDescriptor[] targetPds = BeanUtils.getPropertyDescriptors(target);
-            for (PropertyDescriptor targetPd : targetPds) {
-                Method writeMethod = targetPd.getWriteMethod();
-                if (writeMethod != null) {
-                    for (Object obj : sourceList) {
-                        Class source = obj.getClass();
-
-                        PropertyDescriptor sourceKeyPd = BeanUtils.getPropertyDescriptor(source, fieldKey);
-                        if (sourceKeyPd != null) {
-                            Method readMethod = sourceKeyPd.getReadMethod();
-                            if (readMethod != null) {
-                                if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
-                                    readMethod.setAccessible(true);
-                                }
-                                Object key = readMethod.invoke(obj);
-                                String setMethod = writeMethod.getName();
-                                setMethod = key.toString().charAt(0) + setMethod.substring(4);
-                                if (Objects.equals(key, setMethod)) {
-                                    PropertyDescriptor sourcePd = BeanUtils.getPropertyDescriptor(source, fieldValue);
-                                    if (sourcePd != null) {
-                                        Method readValueMethod = sourcePd.getReadMethod();
-                                        if (readMethod != null && ClassUtils.isAssignable(writeMethod.getParameterTypes()[0], readValueMethod.getReturnType())) {
-                                            try {
-                                                if (!Modifier.isPublic(readValueMethod.getDeclaringClass().getModifiers())) {
-                                                    readValueMethod.setAccessible(true);
-                                                }
-                                                Object value = readValueMethod.invoke(obj);
-                                                if (!Modifier.isPublic(writeMethod.getDeclaringClass().getModifiers())) {
-                                                    writeMethod.setAccessible(true);
-                                                }
-                                                writeMethod.invoke(e, value);
-                                            } catch (Throwable ex) {
-                                                throw new FatalBeanException(
-                                                        "Could not copy property '" + targetPd.getName() + "' from source to target", ex);
-                                            }
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-            return e;
+            return KeyValuePivot.pivot(sourceList, destinationClass, fieldKey, fieldValue);
         } catch (Exception e) {
             logger.error("数据复制异常", e);
         }
         return null;
     }
 
+    /**
+     * copy對象中的某個屬性儅作爲key和值組成Map
+     *
+     * @param sourceList copy的對象列表
+     * @param fieldKey   作为key的字段
+     * @param fieldValue 作为value的字段
+     * @return 按key首次出现顺序组成的Map、同一个key以最后一条为准
+     * 示例：
+     * <p>
+     * 比如 list
+     * [{"key":"username","value":"huangmiao"},{"key":"age",value : 12}]
+     * 转换成
+     * {"username" : "huangmiao", "age" : 12}
+     * 调用方式 DataUtils.copyToKeyValueMap(list,"key","value")
+     */
+    public static Map<String, Object> copyToKeyValueMap(List<?> sourceList, String fieldKey, String fieldValue) {
+        return KeyValuePivot.pivotToMap(sourceList, fieldKey, fieldValue);
+    }
+
     /**
      * 将原对象的类copy到目标对象类中
      *
@@ -225,7 +370,7 @@ public class DataUtil {
      */
     public static void copyTo(Object source, Object target) {
         try {
-            BeanUtils.copyProperties(source, target);
+            BeanCopier.create(source.getClass(), target.getClass()).copy(source, target);
         } catch (Exception e) {
             logger.error("copy数据异常失败", e);
         }
@@ -0,0 +1,126 @@
+package tech.mhuang.ext.spring.copy;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 基本类型属性复制测试.
+ * 通过ThreadMXBean的线程分配计数验证同类型基本类型属性的复制不产生装箱对象
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class PrimitiveCopyTest {
+
+    private static final int WARM_UP = 200_000;
+
+    private static final int COPIES = 100_000;
+
+    /**
+     * 每个字段每次复制平均分配的字节数上限、装箱一次至少分配16字节
+     */
+    private static final double MAX_BYTES_PER_FIELD = 0.5;
+
+    private static final int FIELDS = 4;
+
+    @Test
+    public void copiesPrimitiveValues() {
+        Metric source = metric();
+        Metric target = new Metric();
+        BeanCopier.create(Metric.class, Metric.class).copy(source, target);
+        assertEquals(source.getCount(), target.getCount());
+        assertEquals(source.getTotal(), target.getTotal());
+        assertEquals(source.getRate(), target.getRate(), 0);
+        assertEquals(source.isActive(), target.isActive());
+    }
+
+    @Test
+    public void primitiveCopyDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long threadId = Thread.currentThread().getId();
+        BeanCopier<Metric> copier = BeanCopier.create(Metric.class, Metric.class);
+        Metric source = metric();
+        Metric target = new Metric();
+        for (int i = 0; i < WARM_UP; i++) {
+            copier.copy(source, target);
+        }
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < COPIES; i++) {
+            copier.copy(source, target);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        double perField = (double) allocated / COPIES / FIELDS;
+        assertTrue("每个基本类型字段平均分配" + perField + "字节", perField <= MAX_BYTES_PER_FIELD);
+        assertEquals(source.getTotal(), target.getTotal());
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(counter.isThreadAllocatedMemorySupported());
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+
+    private static Metric metric() {
+        Metric metric = new Metric();
+        metric.setCount(1_000_003);
+        metric.setTotal(9_000_000_000L);
+        metric.setRate(0.987654321);
+        metric.setActive(true);
+        return metric;
+    }
+
+    /**
+     * 只含基本类型属性的指标对象、取值均超出包装类型缓存范围
+     */
+    public static class Metric {
+
+        private int count;
+
+        private long total;
+
+        private double rate;
+
+        private boolean active;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void setTotal(long total) {
+            this.total = total;
+        }
+
+        public double getRate() {
+            return rate;
+        }
+
+        public void setRate(double rate) {
+            this.rate = rate;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package tech.mhuang.ext.spring.start;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SpringContextHolder并发测试.
+ * 多线程按名称和类型查找bean的同时替换bean、查找不应失败或获取到null。
+ * 上下文禁止覆盖bean定义、替换走先删除再注册的路径
+ *
+ * @author mhuang
+ * @since 1.3.1
+ */
+public class SpringContextHolderConcurrencyTest {
+
+    private static final int BEANS = 8;
+
+    private static final int READERS = 12;
+
+    private static final int WRITERS = 4;
+
+    private static final int REPLACEMENTS = 2000;
+
+    @BeforeClass
+    public static void setUp() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.setAllowBeanDefinitionOverriding(false);
+        context.refresh();
+        new SpringContextHolder().setApplicationContext(context);
+        for (int i = 0; i < BEANS; i++) {
+            SpringContextHolder.registerBean(name(i), Named.class, Collections.singletonMap("value", "0"));
+        }
+        SpringContextHolder.registerBean("typed", Typed.class, Collections.singletonMap("value", "0"));
+    }
+
+    @Test
+    public void lookupsNeverFailWhileBeansAreReplaced() throws Exception {
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int t = 0; t < READERS; t++) {
+                boolean byType = (t % 2 == 0);
+                readers.add(executor.submit(() -> {
+                    await(start);
+                    while (!stop.get()) {
+                        try {
+                            Object bean = byType ? SpringContextHolder.getBean(Typed.class)
+                                    : SpringContextHolder.getBean(name(ThreadLocalRandom.current().nextInt(BEANS)), Named.class);
+                            assertNotNull(bean);
+                        } catch (Throwable e) {
+                            errors.add(e);
+                        }
+                    }
+                }));
+            }
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < WRITERS; t++) {
+                int offset = t;
+                writers.add(executor.submit(() -> {
+                    await(start);
+                    for (int k = 0; k < REPLACEMENTS; k++) {
+                        String value = String.valueOf(k);
+                        if (k % BEANS == offset) {
+                            SpringContextHolder.replaceBean("typed", Typed.class, Collections.singletonMap("value", value));
+                        } else {
+                            SpringContextHolder.replaceBean(name((k + offset) % BEANS), Named.class, Collections.singletonMap("value", value));
+                        }
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            stop.set(true);
+            for (Future<?> reader : readers) {
+                reader.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue("查找失败:" + errors.peek(), errors.isEmpty());
+        for (int i = 0; i < BEANS; i++) {
+            assertNotNull(SpringContextHolder.getBean(name(i), Named.class).getValue());
+        }
+        assertEquals(SpringContextHolder.getBean("typed"), SpringContextHolder.getBean(Typed.class));
+    }
+
+    private static String name(int index) {
+        return "named" + index;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Named {
+
+        private String value;
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    public static class Typed extends Named {
+
+    }
+}